@@ -3,8 +3,10 @@ package org.sounfury.admin;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableCaching
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = "org.sounfury")
 public class SounfuryBlogApplication {
     public static void main(String[] args) {
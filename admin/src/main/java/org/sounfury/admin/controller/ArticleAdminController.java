@@ -98,5 +98,24 @@ public class ArticleAdminController {
         return Results.success(articleService.getArticle(id));
     }
 
+    /**
+     * 重建门户文章卡片投影
+     *
+     * @return 重建的卡片数
+     */
+    @PostMapping("/card/rebuild")
+    public Result<Integer> rebuildArticleCards() {
+        return Results.success(articleService.rebuildArticleCards());
+    }
+
+    /**
+     * 站点统计对账，重新统计文章数和总字数
+     */
+    @PostMapping("/stats/reconcile")
+    public Result<Void> reconcileSiteStatistics() {
+        articleService.reconcileSiteStatistics();
+        return Results.success();
+    }
+
 
 }
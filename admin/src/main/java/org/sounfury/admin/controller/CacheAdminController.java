@@ -0,0 +1,32 @@
+package org.sounfury.admin.controller;
+
+import cn.dev33.satoken.annotation.SaCheckRole;
+import lombok.RequiredArgsConstructor;
+import org.sounfury.core.convention.result.Result;
+import org.sounfury.core.convention.result.Results;
+import org.sounfury.redis.manager.NearCache;
+import org.sounfury.redis.manager.PlusSpringCacheManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+
+@RestController()
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@SaCheckRole("ADMIN")
+public class CacheAdminController {
+    private final CacheManager cacheManager;
+
+    //本节点二级缓存各层命中率
+    @GetMapping("/stats")
+    public Result<List<NearCache.Stats>> nearCacheStats() {
+        if (cacheManager instanceof PlusSpringCacheManager plusCacheManager) {
+            return Results.success(plusCacheManager.getNearCacheStats());
+        }
+        return Results.success(Collections.emptyList());
+    }
+}
@@ -6,6 +6,8 @@ import org.sounfury.admin.dto.req.CommentPageReq;
 import org.sounfury.admin.service.CommentService;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +31,14 @@ public class CommentController {
         return Results.success(commentService.listComments(commentPageReq));
     }
 
+    /**
+     * 游标分页查询评论列表，传入上一页返回的 nextCursor / prevCursor 翻页
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPageRepDto<List<CommentTreeNode>>> cursorComment(CursorPageReqDto pageReq) {
+        return Results.success(commentService.cursorComments(pageReq));
+    }
+
     /**
      * 审核评论
      */
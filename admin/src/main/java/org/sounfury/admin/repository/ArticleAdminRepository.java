@@ -11,6 +11,8 @@ import org.sounfury.jooq.mapper.JooqFieldMapper;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
 import org.sounfury.jooq.page.utils.JooqPageHelper;
+import org.sounfury.jooq.page.utils.PageCountCache;
+import org.sounfury.jooq.utils.TransactionUtils;
 import static org.sounfury.blog.jooq.Tables.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -32,11 +34,13 @@ public class ArticleAdminRepository extends org.sounfury.blog.jooq.tables.daos.A
 
     public Long insertArticle(Article article) {
         Map<Field<?>, Object> values = JooqFieldMapper.toFieldMap(article, ARTICLE);
-        return ctx().insertInto(ARTICLE)
+        Long id = ctx().insertInto(ARTICLE)
                 .set(values)
                 .returning(ARTICLE.ID)
                 .fetchOne()
                 .getId();
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(ARTICLE));
+        return id;
     }
 
     public void updateCategoryToDefault(List<Long> allChildIds) {
@@ -44,6 +48,7 @@ public class ArticleAdminRepository extends org.sounfury.blog.jooq.tables.daos.A
                 .set(ARTICLE.CATEGORY_ID, DEFAULT_CATEGORY_ID)
                 .where(ARTICLE.CATEGORY_ID.in(allChildIds))
                 .execute();
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(ARTICLE));
     }
 
     public void updateArticle(Article convert) {
@@ -52,7 +57,7 @@ public class ArticleAdminRepository extends org.sounfury.blog.jooq.tables.daos.A
                 .set(JooqFieldMapper.toFieldMap(convert, ARTICLE))
                 .where(ARTICLE.ID.eq(convert.getId()))
                 .execute();
-
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(ARTICLE));
     }
 
     public void deleteArticleById(Long id) {
@@ -61,6 +66,7 @@ public class ArticleAdminRepository extends org.sounfury.blog.jooq.tables.daos.A
                 .set(ARTICLE.DEL_FLAG, DEL_FLAG)
                 .where(ARTICLE.ID.eq(id))
                 .execute();
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(ARTICLE));
     }
 
 
@@ -75,10 +81,4 @@ public class ArticleAdminRepository extends org.sounfury.blog.jooq.tables.daos.A
                 ArticlePageRep.MAPPER);
     }
 
-    public int countEnabledArticle() {
-        // 统计启用且未删除的文章数量
-        return ctx().fetchCount(ARTICLE, ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG)
-                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE)));
-    }
-
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.sounfury.jooq.mapper.JooqFieldMapper;
 import org.sounfury.blog.jooq.tables.daos.CategoryDao;
 import org.sounfury.blog.jooq.tables.pojos.Category;
 import org.sounfury.blog.jooq.tables.records.CategoryRecord;
+import org.sounfury.portal.cache.CategoryTreeSnapshot;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,8 +17,11 @@ import static org.sounfury.blog.jooq.tables.Category.CATEGORY;
 
 @Repository
 public class CategoryAdminRepository extends CategoryDao {
-    public CategoryAdminRepository(Configuration configuration) {
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
+
+    public CategoryAdminRepository(Configuration configuration, CategoryTreeSnapshot categoryTreeSnapshot) {
         super(configuration);
+        this.categoryTreeSnapshot = categoryTreeSnapshot;
     }
 
     public void deleteBatchByIds(List<Long> allChildIds) {
@@ -25,6 +29,7 @@ public class CategoryAdminRepository extends CategoryDao {
                 .set(CATEGORY.DEL_FLAG, DEL_FLAG)
                 .where(CATEGORY.ID.in(allChildIds))
                 .execute();
+        categoryTreeSnapshot.invalidate();
     }
 
     /**
@@ -44,6 +49,7 @@ public class CategoryAdminRepository extends CategoryDao {
                 .set(CATEGORY.PID, category.getPid())
                 .where(CATEGORY.ID.eq(category.getId()))
                 .execute();
+        categoryTreeSnapshot.invalidate();
     }
 
     public void batchUpdateCategorySort(List<Category> categories) {
@@ -58,12 +64,14 @@ public class CategoryAdminRepository extends CategoryDao {
         // 执行批量更新
         ctx().batch(updateSteps)
                 .execute();
+        categoryTreeSnapshot.invalidate();
     }
 
     public void insertCategory(Category convert) {
         ctx().insertInto(CATEGORY)
                 .set(JooqFieldMapper.toFieldMap(convert, CATEGORY))
                 .execute();
+        categoryTreeSnapshot.invalidate();
     }
 
     public boolean isExistByName(String name) {
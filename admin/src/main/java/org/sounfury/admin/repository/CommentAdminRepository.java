@@ -4,8 +4,13 @@ import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.SelectConditionStep;
 import org.sounfury.admin.dto.req.CommentPageReq;
+import org.sounfury.blog.jooq.tables.records.CommentRecord;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.utils.JooqPageHelper;
+import org.sounfury.jooq.page.utils.PageCountCache;
+import org.sounfury.jooq.utils.TransactionUtils;
 import static org.sounfury.blog.jooq.Tables.*;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
 import org.springframework.stereotype.Repository;
@@ -27,6 +32,7 @@ public class CommentAdminRepository extends org.sounfury.blog.jooq.tables.daos.C
                 .set(COMMENT.ENABLE_STATUS, pass)
                 .where(COMMENT.ID.eq(commentId))
                 .execute();
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(COMMENT));
     }
 
     public void deleteCommentById(Long commentId) {
@@ -34,17 +40,30 @@ public class CommentAdminRepository extends org.sounfury.blog.jooq.tables.daos.C
                 .set(COMMENT.DEL_FLAG,DEL_FLAG)
                 .where(COMMENT.ID.eq(commentId))
                 .execute();
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(COMMENT));
     }
 
     /**
      * 分页查询所有评论
      */
-    public PageRepDto<List<org.sounfury.blog.jooq.tables.records.CommentRecord>> getComments(CommentPageReq req) {
-        SelectConditionStep<org.sounfury.blog.jooq.tables.records.CommentRecord> and = ctx()
+    public PageRepDto<List<CommentRecord>> getComments(CommentPageReq req) {
+        SelectConditionStep<CommentRecord> and = ctx()
                 .selectFrom(COMMENT)
                 .where(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG));
 
         DSLContext dsl = configuration().dsl();
         return JooqPageHelper.getPage(and, req, dsl);
     }
+
+    /**
+     * 游标分页查询所有评论
+     */
+    public CursorPageRepDto<List<CommentRecord>> cursorComments(CursorPageReqDto req) {
+        SelectConditionStep<CommentRecord> and = ctx()
+                .selectFrom(COMMENT)
+                .where(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG));
+
+        DSLContext dsl = configuration().dsl();
+        return JooqPageHelper.getCursorPage(and, req, COMMENT.ID, dsl, record -> record);
+    }
 }
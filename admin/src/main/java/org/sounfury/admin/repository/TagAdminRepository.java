@@ -1,23 +1,48 @@
 package org.sounfury.admin.repository;
 
 import cn.dev33.satoken.stp.StpUtil;
+import lombok.extern.slf4j.Slf4j;
 import org.jooq.Configuration;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep2;
+import org.jooq.InsertValuesStep3;
 import org.jooq.impl.DSL;
 import org.sounfury.blog.jooq.tables.daos.TagDao;
 import org.sounfury.blog.jooq.tables.pojos.Tag;
-import org.sounfury.portal.dto.rep.TagsQueryRep;
+import org.sounfury.blog.jooq.tables.records.ArticleTagRecord;
+import org.sounfury.blog.jooq.tables.records.TagRecord;
+import org.sounfury.core.convention.exception.ServiceException;
+import org.sounfury.jooq.utils.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
 
 import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
 import static org.sounfury.blog.jooq.tables.ArticleTag.ARTICLE_TAG;
 import static org.sounfury.blog.jooq.tables.Tag.TAG;
 
+@Slf4j
 @Repository
 public class TagAdminRepository extends TagDao {
 
+    /**
+     * 标签名 -> 标签id，标签不会改名或物理删除，映射可以一直保留。
+     * tag 表使用大小写不敏感的排序规则，这里同样按大小写不敏感比较
+     */
+    private final Map<String, Long> tagIdCache = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+
     @Autowired
     public TagAdminRepository(Configuration configuration) {
         super(configuration);
@@ -38,47 +63,131 @@ public class TagAdminRepository extends TagDao {
 
 
     /**
-     * 查到所有标签并且对标签下文章数进行统计
+     * 标签同步前后文章关联的标签id
      */
-    public List<TagsQueryRep> fetchAllTag() {
-        return ctx().select(TAG.asterisk(), DSL.count(ARTICLE_TAG.ARTICLE_ID)
-                        .as("article_count"))
-                .from(TAG)
-                .leftJoin(ARTICLE_TAG)
-                .on(TAG.ID.eq(ARTICLE_TAG.TAG_ID))
-                .where(TAG.DEL_FLAG.eq(NOT_DEL_FLAG))
-                .groupBy(TAG.ID)
-                .fetchInto(TagsQueryRep.class);
+    public record TagSync(Set<Long> before, Set<Long> after) {
     }
 
     /**
-     * 插入或维护标签以及文章标签关联表
+     * 查询文章关联的标签id
      */
-    public void insertTags(Long articleId,List<String> tags){
-        Long userId= Long.parseLong(StpUtil.getLoginId().toString());
-
-        //先删除这个文章id下的所有标签
-        ctx().delete(ARTICLE_TAG)
+    public Set<Long> fetchTagIdsByArticleId(Long articleId) {
+        return new HashSet<>(ctx().select(ARTICLE_TAG.TAG_ID)
+                .from(ARTICLE_TAG)
                 .where(ARTICLE_TAG.ARTICLE_ID.eq(articleId))
-                .execute();
-
-        tags.forEach(tag -> {
-            Long tagId = ctx().select(TAG.ID)
-                    .from(TAG)
-                    .where(TAG.NAME.eq(tag))
-                    .fetchOneInto(Long.class);
-            //先看看标签表里是否存在，不存在则插入
+                .fetch(ARTICLE_TAG.TAG_ID));
+    }
+
+    /**
+     * 同步文章的标签：按名称批量解析标签id，缺失的标签批量插入，关联表只增删差异部分。
+     * 标签名到id的映射只增不改，在事务提交后写入本地缓存
+     */
+    public TagSync insertTags(Long articleId, List<String> tags) {
+        Set<String> names = normalize(tags);
+        int statements = 0;
+
+        //当前关联
+        Set<Long> currentTagIds = fetchTagIdsByArticleId(articleId);
+        statements++;
+
+        //解析标签id，缓存未命中的一次 IN 查询，仍不存在的批量插入后再查一次
+        Map<String, Long> resolved = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> missing = new LinkedHashSet<>();
+        names.forEach(name -> {
+            Long tagId = tagIdCache.get(name);
+            if (tagId != null) {
+                resolved.put(name, tagId);
+            } else {
+                missing.add(name);
+            }
+        });
+        Map<String, Long> loaded = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!missing.isEmpty()) {
+            loaded.putAll(fetchIdsByNames(missing));
+            statements++;
+            //只是大小写不同的已有标签不再插入
+            missing.removeIf(loaded::containsKey);
+        }
+        int createdCount = missing.size();
+        if (!missing.isEmpty()) {
+            Long userId = Long.parseLong(StpUtil.getLoginId()
+                    .toString());
+            InsertValuesStep3<TagRecord, String, Long, Long> insert = ctx().insertInto(TAG, TAG.NAME, TAG.CREATE_BY,
+                    TAG.UPDATE_BY);
+            missing.forEach(name -> insert.values(name, userId, userId));
+            insert.execute();
+            loaded.putAll(fetchIdsByNames(missing));
+            statements += 2;
+        }
+        resolved.putAll(loaded);
+        TransactionUtils.afterCommit(() -> tagIdCache.putAll(loaded));
+
+        Set<Long> targetTagIds = new LinkedHashSet<>();
+        for (String name : names) {
+            Long tagId = resolved.get(name);
             if (tagId == null) {
-                tagId = ctx().insertInto(TAG, TAG.NAME,TAG.CREATE_BY,TAG.UPDATE_BY)
-                        .values(tag,userId,userId)
-                        .returning(TAG.ID)
-                        .fetchOne()
-                        .getId();
+                //按排序规则与已有标签相同但大小写之外也不同（如全角、重音）时，插入后仍查不到
+                throw new ServiceException("标签保存失败，无法解析标签：" + name);
             }
-            //再插入文章标签关联表
-            ctx().insertInto(ARTICLE_TAG, ARTICLE_TAG.ARTICLE_ID, ARTICLE_TAG.TAG_ID)
-                    .values(articleId, tagId)
+            targetTagIds.add(tagId);
+        }
+
+        //只删除去掉的、插入新增的关联
+        Set<Long> removed = new HashSet<>(currentTagIds);
+        removed.removeAll(targetTagIds);
+        if (!removed.isEmpty()) {
+            ctx().delete(ARTICLE_TAG)
+                    .where(ARTICLE_TAG.ARTICLE_ID.eq(articleId))
+                    .and(ARTICLE_TAG.TAG_ID.in(removed))
                     .execute();
-        });
+            statements++;
+        }
+        List<Long> added = targetTagIds.stream()
+                .filter(tagId -> !currentTagIds.contains(tagId))
+                .toList();
+        if (!added.isEmpty()) {
+            InsertValuesStep2<ArticleTagRecord, Long, Long> insert = ctx().insertInto(ARTICLE_TAG,
+                    ARTICLE_TAG.ARTICLE_ID, ARTICLE_TAG.TAG_ID);
+            added.forEach(tagId -> insert.values(articleId, tagId));
+            insert.execute();
+            statements++;
+        }
+
+        //逐条处理时：清空关联 1 条，每个标签查询 1 条、关联插入 1 条，新标签再插入 1 条
+        int rowByRowStatements = 1 + names.size() * 2 + createdCount;
+        log.debug("文章 {} 标签同步：新增关联 {}，删除关联 {}，新建标签 {}，执行 {} 条语句，节省 {} 条", articleId,
+                added.size(), removed.size(), createdCount, statements, rowByRowStatements - statements);
+        return new TagSync(currentTagIds, targetTagIds);
+    }
+
+    /**
+     * 按名称批量查询标签id，同名多条时取最早的一条
+     * 返回的 key 是库中的名称，大小写可能与请求不同，按大小写不敏感查找
+     */
+    private Map<String, Long> fetchIdsByNames(Collection<String> names) {
+        Field<Long> minId = DSL.min(TAG.ID);
+        Map<String, Long> ids = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        ctx().select(TAG.NAME, minId)
+                .from(TAG)
+                .where(TAG.NAME.in(names))
+                .groupBy(TAG.NAME)
+                .forEach(record -> ids.merge(record.value1(), record.value2(), Math::min));
+        return ids;
+    }
+
+    /**
+     * 去掉首尾空白、空串和重复（大小写不敏感），保持原有顺序
+     */
+    private static Set<String> normalize(List<String> tags) {
+        if (tags == null) {
+            return Collections.emptySet();
+        }
+        Set<String> seen = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .filter(seen::add)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
-}
\ No newline at end of file
+}
@@ -29,4 +29,16 @@ public interface ArticleService {
     PageRepDto<List<ArticlePageRep>> pageArticle(PageReqDto articlePageReq);
 
     ArticleDetailRep getArticle(Long id);
+
+    /**
+     * 重建门户文章卡片投影
+     *
+     * @return 重建的卡片数
+     */
+    int rebuildArticleCards();
+
+    /**
+     * 从文章表重新统计站点文章数和总字数
+     */
+    void reconcileSiteStatistics();
 }
@@ -1,6 +1,8 @@
 package org.sounfury.admin.service;
 
 import org.sounfury.admin.dto.req.CommentPageReq;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
@@ -14,6 +16,11 @@ public interface CommentService {
      */
     PageRepDto<List<CommentTreeNode>> listComments(CommentPageReq commentPageReq);
 
+    /**
+     * 游标分页查询评论
+     */
+    CursorPageRepDto<List<CommentTreeNode>> cursorComments(CursorPageReqDto pageReq);
+
 
     /**
      * 审核评论
@@ -16,16 +16,22 @@ import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
 import org.sounfury.blog.jooq.tables.pojos.Article;
 import org.sounfury.blog.jooq.tables.pojos.Category;
+import org.sounfury.portal.cache.ArticleCardProjection;
 import org.sounfury.portal.dto.rep.ArticleCategoryDto;
 import org.sounfury.portal.dto.rep.TagPortalDto;
-import org.sounfury.portal.repository.SiteInfoPortalRepository;
-import org.sounfury.utils.CacheUtils;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.CategoryPortalRepository;
+import org.sounfury.portal.repository.TagPortalRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
-
-import static org.sounfury.core.constant.CacheNames.SITE_INFO;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,7 +39,10 @@ public class ArticleServiceImpl implements ArticleService {
     private final ArticleAdminRepository articleRepository;
     private final TagAdminRepository tagRepository;
     private final CategoryAdminRepository categoryRepository;
-    private final SiteInfoPortalRepository siteInfoPortalRepository;
+    private final TagPortalRepository tagPortalRepository;
+    private final CategoryPortalRepository categoryPortalRepository;
+    private final ArticleCardProjection articleCardProjection;
+    private final ApplicationEventPublisher eventPublisher;
 
 // @Cacheable(value = "siteInfoCache", key = "'siteInfo'")
 
@@ -44,15 +53,8 @@ public class ArticleServiceImpl implements ArticleService {
 
         Article convert = MapstructUtils.convert(articleAddReq, Article.class);
         long articleId = articleRepository.insertArticle(convert);
-        tagRepository.insertTags(articleId, articleAddReq.getTags());
-        //拿到字数
-        Long totalWords = (long) articleAddReq.getContent()
-                .length();
-        //拿到当前文章数量
-        Long articleCount = (long) articleRepository.countEnabledArticle();
-
-        siteInfoPortalRepository.statusArticleInfo(totalWords, articleCount);
-        CacheUtils.clear(SITE_INFO);
+        TagAdminRepository.TagSync tagSync = tagRepository.insertTags(articleId, articleAddReq.getTags());
+        eventPublisher.publishEvent(ArticleChangedEvent.added(articleId, convert, tagSync.after()));
         return articleId;
     }
 
@@ -63,14 +65,9 @@ public class ArticleServiceImpl implements ArticleService {
         Article article = checkArticleExist(articleUpdateReq.getId());
         Article convert = MapstructUtils.convert(articleUpdateReq, Article.class);
         articleRepository.updateArticle(convert);
-        tagRepository.insertTags(articleUpdateReq.getId(), articleUpdateReq.getTags());
-        //计算字数差
-        Long newTotalWords = (long) articleUpdateReq.getContent()
-                .length() - article.getContent()
-                .length();
-        siteInfoPortalRepository.statusUpdateArticleInfo(newTotalWords);
-        CacheUtils.clear(SITE_INFO);
-
+        TagAdminRepository.TagSync tagSync = tagRepository.insertTags(articleUpdateReq.getId(),
+                articleUpdateReq.getTags());
+        eventPublisher.publishEvent(ArticleChangedEvent.updated(article, convert, tagSync.before(), tagSync.after()));
         return articleUpdateReq.getId();
     }
 
@@ -78,15 +75,8 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public void deleteArticle(Long id) {
         Article article = checkArticleExist(id);
-        //计算字数，去负数
-        long totalWords = article.getContent()
-                .length();
-        totalWords = -totalWords;
-
         articleRepository.deleteArticleById(id);
-        //拿到当前文章数量
-        int count = articleRepository.countEnabledArticle();
-        siteInfoPortalRepository.statusArticleInfo(totalWords, (long) count);
+        eventPublisher.publishEvent(ArticleChangedEvent.deleted(article, tagRepository.fetchTagIdsByArticleId(id)));
     }
 
     @Override
@@ -110,21 +100,37 @@ public class ArticleServiceImpl implements ArticleService {
         return adminArticleRep;
     }
 
+    @Override
+    public int rebuildArticleCards() {
+        return articleCardProjection.rebuild();
+    }
+
+    @Override
+    public void reconcileSiteStatistics() {
+        siteStatistics.reconcile();
+    }
 
     @NotNull
     private PageRepDto<List<ArticlePageRep>> getPageTagsAndCategory(PageRepDto<List<ArticlePageRep>> listPageRepDto) {
-        if (listPageRepDto.getData() != null) {
-            listPageRepDto.getData()
-                    .forEach(pageArticleRep -> {
-                        Category category = categoryRepository.fetchOneById(pageArticleRep.getCategoryId());
-                        List<TagPortalDto> tagPortalDtoList = tagRepository.fetchByArticleId(pageArticleRep.getId())
-                                .stream()
-                                .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
-                                .toList();
-                        pageArticleRep.setTags(tagPortalDtoList);
-                        pageArticleRep.setCategory(new ArticleCategoryDto(category.getId(), category.getName()));
-                    });
+        List<ArticlePageRep> articles = listPageRepDto.getData();
+        if (articles == null || articles.isEmpty()) {
+            return listPageRepDto;
         }
+        //整页文章只查一次标签、一次分类
+        List<Long> articleIds = articles.stream()
+                .map(ArticlePageRep::getId)
+                .toList();
+        Set<Long> categoryIds = articles.stream()
+                .map(ArticlePageRep::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, List<TagPortalDto>> tagMap = tagPortalRepository.fetchTagsByArticleIds(articleIds);
+        Map<Long, ArticleCategoryDto> categoryMap = categoryPortalRepository.fetchCategoryDictByIds(categoryIds);
+
+        articles.forEach(pageArticleRep -> {
+            pageArticleRep.setTags(tagMap.getOrDefault(pageArticleRep.getId(), Collections.emptyList()));
+            pageArticleRep.setCategory(categoryMap.get(pageArticleRep.getCategoryId()));
+        });
         return listPageRepDto;
     }
 
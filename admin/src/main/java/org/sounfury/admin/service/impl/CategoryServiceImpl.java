@@ -10,55 +10,29 @@ import org.sounfury.admin.service.CategoryService;
 import org.sounfury.core.convention.exception.ClientException;
 import org.sounfury.core.utils.MapstructUtils;
 import org.sounfury.blog.jooq.tables.pojos.Category;
-import org.sounfury.blog.jooq.tables.records.CategoryRecord;
+import org.sounfury.portal.cache.ArticleCardProjection;
+import org.sounfury.portal.cache.ArticleDetailCache;
+import org.sounfury.portal.cache.CategoryTreeSnapshot;
 import org.sounfury.portal.dto.rep.CategoryTreeNode;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryAdminRepository categoryAdminRepository;
     private final ArticleAdminRepository articleAdminRepository;
+    private final ArticleCardProjection articleCardProjection;
+    private final ArticleDetailCache articleDetailCache;
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
 
     @Override
     public List<CategoryTreeNode> getAllCategory() {
-        List<CategoryRecord> allCategories = categoryAdminRepository.getAllCategories();
-        return buildCategoryTree(allCategories);
-    }
-
-    private List<CategoryTreeNode> buildCategoryTree(
-            List<org.sounfury.blog.jooq.tables.records.CategoryRecord> categoryRecords) {
-        // 将所有分类转换为树节点
-        Map<Long, CategoryTreeNode> nodeMap = categoryRecords.stream()
-                .collect(Collectors.toMap(
-                        org.sounfury.blog.jooq.tables.records.CategoryRecord::getId,
-                        record -> new CategoryTreeNode(
-                                record.getId(),
-                                record.getName(),
-                                record.getPid(),
-                                record.getDescription(),
-                                record.getOrder()
-                        )
-                ));
-        List<CategoryTreeNode> tree = new ArrayList<>();
-        for (CategoryTreeNode node : nodeMap.values()) {
-            if (node.getPid() == null) {
-                // 没有父分类，加入根节点
-                tree.add(node);
-            } else {
-                CategoryTreeNode parent = nodeMap.get(node.getPid());
-                if (parent != null) {
-                    parent.getChildren()
-                            .add(node);
-                }
-            }
-        }
-
-        return tree;
+        return categoryTreeSnapshot.tree();
     }
 
     @Override
@@ -81,20 +55,22 @@ public class CategoryServiceImpl implements CategoryService {
         long userId = StpUtil.getLoginIdAsLong();
         category.setUpdateBy(userId);
         categoryAdminRepository.updateCategory(category);
+        //分类名称可能变化，重建该分类下文章的卡片
+        articleCardProjection.refreshByCategory(List.of(category.getId()));
+        articleDetailCache.evictByCategory(List.of(category.getId()));
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteCategory(Long id) {
         //级联删除，把所有子分类也删除
-        //先查询出所有子分类
-        List<Long> allChildIds = buildChildrenTree(id);
-        if(allChildIds.isEmpty()) {
-            allChildIds=new ArrayList<>();
-        }
+        //子孙分类从分类树快照中取，不再逐层查询
+        List<Long> allChildIds = new ArrayList<>(categoryTreeSnapshot.descendantIds(id));
         //删除分类和文章的关联关系,即更新文章的分类id为默认分类
         allChildIds.add(id);
         categoryAdminRepository.deleteBatchByIds(allChildIds);
+        articleCardProjection.refreshByCategory(allChildIds);
+        articleDetailCache.evictByCategory(allChildIds);
     }
 
     @Override
@@ -114,29 +90,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public Map<Long, String> categoryDict() {
-        List<CategoryRecord> allCategories = categoryAdminRepository.getAllCategories();
-        return allCategories.stream()
-                .collect(Collectors.toMap(CategoryRecord::getId, CategoryRecord::getName));
+        return categoryTreeSnapshot.dict();
     }
 
-
-    private List<Long> buildChildrenTree(Long pid) {
-        List<Category> directChildren = categoryAdminRepository.fetchByPid(pid);
-
-        // 空值和空列表检查
-        if (directChildren == null || directChildren.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> directChildIds = directChildren.stream()
-                .map(Category::getId)
-                .toList();
-
-        Set<Long> allChildIds = new HashSet<>(directChildIds);
-
-        for (Long childId : directChildIds) {
-            allChildIds.addAll(buildChildrenTree(childId));
-        }
-        return new ArrayList<>(allChildIds);
-    }
 }
@@ -4,8 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.sounfury.admin.dto.req.CommentPageReq;
 import org.sounfury.admin.repository.CommentAdminRepository;
 import org.sounfury.admin.service.CommentService;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
+import org.sounfury.blog.jooq.tables.pojos.Comment;
 import org.sounfury.blog.jooq.tables.records.CommentRecord;
+import org.sounfury.portal.cache.CommentCountCache;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +25,7 @@ import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
     private final CommentAdminRepository commentRepository;
+    private final CommentCountCache commentCountCache;
 
     @Override
     public PageRepDto<List<CommentTreeNode>> listComments(CommentPageReq commentPageReq) {
@@ -29,15 +34,32 @@ public class CommentServiceImpl implements CommentService {
         return new PageRepDto<>(comments.getTotal(), commentTree);
     }
 
+    @Override
+    public CursorPageRepDto<List<CommentTreeNode>> cursorComments(CursorPageReqDto pageReq) {
+        CursorPageRepDto<List<CommentRecord>> comments = commentRepository.cursorComments(pageReq);
+        List<CommentTreeNode> commentTree = buildCommentTree(comments.getData());
+        return new CursorPageRepDto<>(commentTree, comments.getNextCursor(), comments.getPrevCursor(),
+                comments.isHasNext(), comments.isHasPrev(), comments.getTotal());
+    }
+
     @Override
     public void auditComment(Long commentId, Boolean pass) {
         Byte status = pass ? STATUS_ENABLE : STATUS_DISABLE;
         commentRepository.updateCommentStatus(commentId, status);
+        evictCommentCount(commentId);
     }
 
     @Override
     public void deleteComment(Long commentId) {
         commentRepository.deleteCommentById(commentId);
+        evictCommentCount(commentId);
+    }
+
+    private void evictCommentCount(Long commentId) {
+        Comment comment = commentRepository.fetchOneById(commentId);
+        if (comment != null) {
+            commentCountCache.evict(comment.getArticleId());
+        }
     }
 
     private List<CommentTreeNode> buildCommentTree(List<CommentRecord> allComments) {
@@ -46,10 +68,7 @@ public class CommentServiceImpl implements CommentService {
 
         // 将所有评论按 ID 映射
         Map<Long, CommentTreeNode> commentMap = allComments.stream()
-                .collect(Collectors.toMap(CommentRecord::getId,
-                        record -> new CommentTreeNode(record.getId(), record.getUserId(), record.getParentId(),
-                                record.getTopCommentId(), record.getContent(), record.getLikeCount(),
-                                record.getCreateTime(), record.getEnableStatus(), new ArrayList<>())));
+                .collect(Collectors.toMap(CommentRecord::getId, CommentTreeNode::from));
 
         // 遍历所有评论，构造父子关系
         for (CommentRecord record : allComments) {
@@ -61,6 +80,11 @@ public class CommentServiceImpl implements CommentService {
             } else {
                 // 子评论，加入其父评论的 children 列表
                 CommentTreeNode topParentNode = commentMap.get(record.getTopCommentId());
+                if (topParentNode == null) {
+                    // 顶层评论不在本页，单独展示
+                    result.add(currentNode);
+                    continue;
+                }
                 // 将当前子评论加入顶层父评论的 children 列表
                 topParentNode.getChildren()
                         .add(currentNode);
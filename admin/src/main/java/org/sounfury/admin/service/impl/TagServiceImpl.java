@@ -5,6 +5,7 @@ import org.sounfury.admin.service.TagService;
 import org.sounfury.blog.jooq.tables.pojos.Tag;
 import org.sounfury.portal.dto.rep.TagsQueryRep;
 import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.portal.stats.TagStatistics;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,10 +16,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TagServiceImpl implements TagService {
     private final TagPortalRepository tagRepository;
+    private final TagStatistics tagStatistics;
 
     @Override
     public List<TagsQueryRep> getAllTags() {
-        return tagRepository.fetchAllTag();
+        return tagStatistics.tags();
     }
 
     @Override
@@ -11,6 +11,7 @@ import org.sounfury.aki.application.prompt.persona.dto.PersonaPageRequest;
 import org.sounfury.aki.application.prompt.persona.dto.PersonaPageResponse;
 import org.sounfury.aki.application.prompt.persona.dto.UpdatePersonaCommand;
 import org.sounfury.aki.application.prompt.persona.service.PersonaApplicationService;
+import org.sounfury.aki.contracts.service.AdvisorFactoryPort;
 import org.sounfury.aki.domain.prompt.persona.Persona;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
@@ -116,6 +117,14 @@ public class PersonaController {
         return Results.success(response);
     }
 
+    /**
+     * 角色advisor缓存统计，稳定对话中应几乎全部命中（命中时不查询角色、不渲染模板）
+     */
+    @GetMapping("/advisor-cache/stats")
+    public Result<AdvisorFactoryPort.CharacterCacheStats> getAdvisorCacheStats() {
+        return Results.success(personaApplicationService.getAdvisorCacheStats());
+    }
+
     /**
      * 角色响应DTO
      */
@@ -11,10 +11,8 @@ import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
 import org.sounfury.core.convention.exception.ClientException;
 import org.sounfury.core.convention.exception.ServiceException;
-import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -80,13 +78,13 @@ public class SessionController {
     /**
      * 根据sessionId加载会话详情（基础信息+最新10条记忆）
      * @param sessionId 会话ID
-     * @param cursor 游标时间戳，用于分页加载，null表示加载最新记录
+     * @param cursor 上一页返回的 nextCursor，用于分页加载，null表示加载最新记录
      * @return 会话详情
      */
     @GetMapping("/{sessionId}/detail")
     public Result<SessionDetailResponse> getSessionDetail(
             @PathVariable String sessionId,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")LocalDateTime cursor) {
+            @RequestParam(required = false) String cursor) {
         log.debug("加载会话详情: sessionId={}, cursor={}", sessionId, cursor);
         return Results.success(sessionApplicationService.getSessionDetail(sessionId, cursor));
     }
@@ -85,12 +85,15 @@ public class RequestPlanCreatService {
     /**
      * 确保角色的advisor存在
      * 若不存在，调用AdvisorFactoryPort的createAndCacheAdvisors方法
+     * 命中缓存时不查询角色，也不渲染角色提示词模板
      */
     public void ensure(String characterId) {
         try {
             // 检查角色advisor是否存在
             if (!advisorFactoryPort.containsCharacter(characterId)) {
                 log.info("角色{}的advisor不存在，开始创建", characterId);
+                // 先取版本再加载，加载期间角色被更新时不会缓存旧内容
+                long version = advisorFactoryPort.characterVersion(characterId);
                 
                 // 获取角色信息
                 Persona persona = characterRepository.findPersonaById(PersonaId.of(characterId))
@@ -106,7 +109,7 @@ public class RequestPlanCreatService {
                         .build();
                 
                 // 创建并缓存advisors
-                advisorFactoryPort.createAndCacheAdvisors(promptSpec, characterId);
+                advisorFactoryPort.createAndCacheAdvisors(promptSpec, characterId, version);
                 
                 log.info("角色{}的advisor创建完成", characterId);
             } else {
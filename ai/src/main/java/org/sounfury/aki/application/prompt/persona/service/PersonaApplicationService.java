@@ -9,6 +9,7 @@ import org.sounfury.aki.application.prompt.persona.dto.PersonaPageRequest;
 import org.sounfury.aki.application.prompt.persona.dto.PersonaPageResponse;
 import org.sounfury.aki.application.prompt.persona.dto.UpdatePersonaCommand;
 import org.sounfury.aki.application.shared.event.DomainEventPublisher;
+import org.sounfury.aki.contracts.service.AdvisorFactoryPort;
 import org.sounfury.aki.domain.prompt.persona.Persona;
 import org.sounfury.aki.domain.prompt.persona.PersonaCard;
 import org.sounfury.aki.domain.prompt.persona.PersonaId;
@@ -32,6 +33,7 @@ public class PersonaApplicationService {
 
     private final CharacterRepository characterRepository;
     private final DomainEventPublisher eventPublisher;
+    private final AdvisorFactoryPort advisorFactoryPort;
 
     /**
      * 创建角色
@@ -247,6 +249,13 @@ public class PersonaApplicationService {
         }
     }
 
+    /**
+     * 角色advisor缓存统计
+     */
+    public AdvisorFactoryPort.CharacterCacheStats getAdvisorCacheStats() {
+        return advisorFactoryPort.characterCacheStats();
+    }
+
     /**
      * 发布聚合中的领域事件
      */
@@ -28,6 +28,11 @@ public class SessionDetailResponse {
      * 是否还有更多记忆
      */
     private Boolean hasMore;
+
+    /**
+     * 加载更早记忆的游标，没有更多时为空
+     */
+    private String nextCursor;
     
     /**
      * 会话基础信息
@@ -5,7 +5,6 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
-import java.time.LocalDateTime;
 
 /**
  * Session记忆分页查询请求DTO
@@ -20,9 +19,9 @@ public class SessionMemoryPageRequest {
     private String sessionId;
     
     /**
-     * 游标时间戳（用于分页，null表示查询最新记录）
+     * 上一页返回的游标（用于分页，null表示查询最新记录）
      */
-    private LocalDateTime cursor;
+    private String cursor;
     
     /**
      * 查询数量限制
@@ -8,9 +8,9 @@ import org.sounfury.aki.domain.conversation.session.repository.SessionRepository
 import org.sounfury.aki.domain.prompt.persona.Persona;
 import org.sounfury.aki.domain.prompt.persona.PersonaId;
 import org.sounfury.aki.domain.prompt.repository.CharacterRepository;
+import org.sounfury.jooq.page.CursorPageRepDto;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -173,9 +173,9 @@ public class SessionApplicationService {
     /**
      * 根据sessionId加载会话详情（基础信息+最新10条记忆）
      * @param sessionId 会话ID
-     * @param cursor 游标时间戳，用于分页加载，null表示加载最新记录
+     * @param cursor 上一页返回的游标，用于分页加载，null表示加载最新记录
      */
-    public SessionDetailResponse getSessionDetail(String sessionId, LocalDateTime cursor) {
+    public SessionDetailResponse getSessionDetail(String sessionId, String cursor) {
         try {
             log.info("加载会话详情: sessionId={}, cursor={}", sessionId, cursor);
             
@@ -187,19 +187,10 @@ public class SessionApplicationService {
             
             Session session = sessionOpt.get();
             
-            // 查询10条记忆（使用cursor进行分页）
-            List<SessionMemory> memories = sessionRepository.findSessionMemories(
+            // 查询10条记忆（使用cursor进行分页，多取的一条用于判断是否还有更多）
+            CursorPageRepDto<List<SessionMemory>> memoryPage = sessionRepository.findSessionMemories(
                     SessionId.of(sessionId), cursor, 10);
-            
-            // 检查是否还有更多记忆
-            boolean hasMore = memories.size() == 10;
-            if (hasMore) {
-                // 再查询一条看是否真的还有更多
-                LocalDateTime lastTimestamp = memories.get(memories.size() - 1).getTimestamp();
-                List<SessionMemory> moreMemories = sessionRepository.findSessionMemories(
-                        SessionId.of(sessionId), lastTimestamp, 1);
-                hasMore = !moreMemories.isEmpty();
-            }
+            List<SessionMemory> memories = memoryPage.getData();
             
             // 转换为DTO
             String characterName = getCharacterName(session.getConfiguration().getPersonaId());
@@ -212,7 +203,8 @@ public class SessionApplicationService {
             return SessionDetailResponse.builder()
                     .sessionInfo(sessionInfo)
                     .memories(memoryItems)
-                    .hasMore(hasMore)
+                    .hasMore(memoryPage.isHasNext())
+                    .nextCursor(memoryPage.getNextCursor())
                     .build();
                     
         } catch (Exception e) {
@@ -232,7 +224,8 @@ public class SessionApplicationService {
             List<SessionMemory> memories = sessionRepository.findSessionMemories(
                     SessionId.of(request.getSessionId()), 
                     request.getCursor(), 
-                    request.getLimit());
+                    request.getLimit())
+                    .getData();
             
             return memories.stream()
                     .map(this::convertToMemoryItem)
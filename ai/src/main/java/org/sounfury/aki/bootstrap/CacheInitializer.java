@@ -1,7 +1,29 @@
 package org.sounfury.aki.bootstrap;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.aki.domain.prompt.service.PromptRegistry;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
 /**
  * 缓存预热
+ * 在初始化ChatClient之前加载并预编译所有启用的提示词
  */
-public class CacheInitializer {
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CacheInitializer implements ApplicationRunner {
+
+    private final PromptRegistry promptRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("开始加载提示词注册表...");
+        promptRegistry.reloadAll();
+    }
 }
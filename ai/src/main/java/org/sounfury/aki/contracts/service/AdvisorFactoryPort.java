@@ -16,8 +16,32 @@ public interface AdvisorFactoryPort {
     //检查是否存在指定角色的缓存
     boolean containsCharacter(String characterId);
 
+    //角色当前的内容版本，加载角色前读取
+    long characterVersion(String characterId);
+
     //创建Advisor并放入缓存
     void createAndCacheAdvisors(PromptSpec promptSpec, String characterId);
 
+    //创建Advisor并按加载前的版本放入缓存，加载期间角色被更新则不放入
+    void createAndCacheAdvisors(PromptSpec promptSpec, String characterId, long version);
+
+    //角色advisor缓存统计
+    CharacterCacheStats characterCacheStats();
+
+    /**
+     * 角色advisor缓存统计
+     *
+     * @param size          当前缓存的角色数
+     * @param capacity      最多缓存的角色数
+     * @param hits          命中次数，命中时不查询角色也不渲染模板
+     * @param misses        未命中次数
+     * @param hitRatio      命中率
+     * @param loads         加载（查询角色并渲染模板）次数
+     * @param evictions     因容量淘汰的次数
+     * @param invalidations 因角色或模板更新失效的次数
+     */
+    record CharacterCacheStats(int size, int capacity, long hits, long misses, double hitRatio, long loads,
+                               long evictions, long invalidations) {
+    }
 
 }
@@ -3,6 +3,7 @@ package org.sounfury.aki.domain.conversation.session.repository;
 import org.sounfury.aki.domain.conversation.session.Session;
 import org.sounfury.aki.domain.conversation.session.SessionId;
 import org.sounfury.aki.domain.conversation.session.SessionMemory;
+import org.sounfury.jooq.page.CursorPageRepDto;
 
 import java.util.Optional;
 import java.util.List;
@@ -27,11 +28,11 @@ public interface SessionRepository {
     /**
      * 分页查询会话记忆（游标分页）
      * @param sessionId 会话ID
-     * @param cursor 游标时间戳，null表示查询最新记录
+     * @param cursor 上一页返回的游标，null表示查询最新记录
      * @param limit 查询数量限制
-     * @return 会话记忆列表，按时间倒序
+     * @return 会话记忆分页，按时间倒序
      */
-    List<SessionMemory> findSessionMemories(SessionId sessionId, java.time.LocalDateTime cursor, int limit);
+    CursorPageRepDto<List<SessionMemory>> findSessionMemories(SessionId sessionId, String cursor, int limit);
 
 
     /**
@@ -0,0 +1,128 @@
+package org.sounfury.aki.domain.prompt.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.aki.domain.prompt.Prompt;
+import org.sounfury.aki.domain.prompt.repository.PromptRepository;
+import org.sounfury.aki.domain.prompt.template.TemplateEngine;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 提示词注册表
+ * 启动时一次加载所有启用的提示词并预编译，渲染时按 categoryKey 从内存取，不再查询数据库。
+ * 编译结果以 categoryKey#版本 为key，提示词变更时先编译新版本，再整体替换注册表，最后移除旧版本的编译结果，
+ * 替换过程中的渲染要么用旧版本要么用新版本
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PromptRegistry {
+
+    private final PromptRepository promptRepository;
+    private final TemplateEngine templateEngine;
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * categoryKey -> 已启用的提示词，只整体替换，不原地修改
+     */
+    private volatile Map<String, Entry> entries;
+
+    /**
+     * 注册表中的提示词
+     *
+     * @param categoryKey 分类Key
+     * @param version     版本，内容变化时递增
+     * @param content     提示词内容
+     */
+    public record Entry(String categoryKey, long version, String content) {
+
+        /**
+         * 编译缓存的key
+         */
+        public String templateKey() {
+            return categoryKey + "#" + version;
+        }
+    }
+
+    /**
+     * 获取启用的提示词，不存在或未启用时为空
+     */
+    public Optional<Entry> get(String categoryKey) {
+        return Optional.ofNullable(entries()
+                .get(categoryKey));
+    }
+
+    /**
+     * 全量加载，内容未变的提示词保留原版本和编译结果
+     */
+    public synchronized void reloadAll() {
+        Map<String, Entry> current = entries == null ? Map.of() : entries;
+        Map<String, Entry> loaded = new HashMap<>();
+        for (Prompt prompt : promptRepository.findAllPrompt()) {
+            if (!prompt.isEnabled() || !prompt.hasContent()) {
+                continue;
+            }
+            Entry existing = current.get(prompt.getCategoryKey());
+            loaded.put(prompt.getCategoryKey(), existing != null && existing.content()
+                    .equals(prompt.getContent()) ? existing : compile(prompt));
+        }
+        swap(current, loaded);
+        log.info("提示词注册表加载完成，共{}个", loaded.size());
+    }
+
+    /**
+     * 重新加载单个提示词，提示词被禁用或删除时移出注册表
+     */
+    public synchronized void reload(String categoryKey) {
+        Map<String, Entry> current = entries();
+        Map<String, Entry> updated = new HashMap<>(current);
+        Optional<Prompt> prompt = promptRepository.findByCategoryKeyAndEnabled(categoryKey, true)
+                .filter(Prompt::hasContent);
+        Entry existing = current.get(categoryKey);
+        if (prompt.isEmpty()) {
+            updated.remove(categoryKey);
+        } else if (existing == null || !existing.content()
+                .equals(prompt.get()
+                        .getContent())) {
+            updated.put(categoryKey, compile(prompt.get()));
+        } else {
+            return;
+        }
+        swap(current, updated);
+        log.debug("提示词已更新: categoryKey={}", categoryKey);
+    }
+
+    private Map<String, Entry> entries() {
+        Map<String, Entry> snapshot = entries;
+        if (snapshot == null) {
+            reloadAll();
+            snapshot = entries;
+        }
+        return snapshot;
+    }
+
+    private Entry compile(Prompt prompt) {
+        Entry entry = new Entry(prompt.getCategoryKey(), versionSequence.incrementAndGet(), prompt.getContent());
+        templateEngine.precompile(entry.templateKey(), entry.content());
+        return entry;
+    }
+
+    /**
+     * 替换注册表并移除不再使用的编译结果
+     */
+    private void swap(Map<String, Entry> current, Map<String, Entry> updated) {
+        entries = Map.copyOf(updated);
+        current.forEach((categoryKey, entry) -> {
+            Entry replacement = updated.get(categoryKey);
+            if (replacement == null || replacement.version() != entry.version()) {
+                templateEngine.evict(entry.templateKey());
+            }
+        });
+    }
+}
@@ -2,10 +2,8 @@ package org.sounfury.aki.domain.prompt.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.sounfury.aki.domain.prompt.Prompt;
 import org.sounfury.aki.domain.prompt.persona.Persona;
 import org.sounfury.aki.domain.prompt.context.*;
-import org.sounfury.aki.domain.prompt.repository.PromptRepository;
 import org.sounfury.aki.domain.prompt.template.TemplateEngine;
 import org.sounfury.aki.domain.prompt.template.TemplateRenderException;
 import org.springframework.stereotype.Service;
@@ -25,7 +23,7 @@ import java.util.Optional;
 public class PromptRenderService {
 
     private final TemplateEngine templateEngine;
-    private final PromptRepository promptRepository;
+    private final PromptRegistry promptRegistry;
 
     /**
      * 根据categoryKey渲染提示词
@@ -41,17 +39,17 @@ public class PromptRenderService {
         }
 
         try {
-            // 直接从Repository获取模板
-            Optional<Prompt> promptOpt = promptRepository.findByCategoryKeyAndEnabled(categoryKey.trim(), true);
-            if (promptOpt.isEmpty() || !promptOpt.get().hasContent()) {
+            // 从注册表获取预编译的模板，不访问数据库
+            Optional<PromptRegistry.Entry> entryOpt = promptRegistry.get(categoryKey.trim());
+            if (entryOpt.isEmpty()) {
                 log.debug("未找到启用的模板: categoryKey={}", categoryKey);
                 return "";
             }
 
-            String template = promptOpt.get().getContent();
+            String template = entryOpt.get().content();
 
             // 渲染模板
-            String result = templateEngine.render(template, context);
+            String result = templateEngine.render(entryOpt.get().templateKey(), template, context);
             
             log.debug("模板渲染成功: categoryKey={}, templateLength={}, resultLength={}", 
                     categoryKey, template.length(), result.length());
@@ -130,13 +128,10 @@ public class PromptRenderService {
 
     /**
      * 预编译模板（性能优化）
+     * 从数据库重新加载该提示词并替换注册表中的版本
      */
     public void precompileTemplate(String categoryKey) {
-        Optional<Prompt> promptOpt = promptRepository.findByCategoryKeyAndEnabled(categoryKey, true);
-        if (promptOpt.isPresent() && promptOpt.get().hasContent()) {
-            String template = promptOpt.get().getContent();
-            templateEngine.precompile(categoryKey, template);
-            log.debug("模板预编译完成: categoryKey={}", categoryKey);
-        }
+        promptRegistry.reload(categoryKey);
+        log.debug("模板预编译完成: categoryKey={}", categoryKey);
     }
 }
@@ -15,6 +15,19 @@ public interface TemplateEngine {
      * @throws TemplateRenderException 渲染失败时抛出
      */
     String render(String template, Object context) throws TemplateRenderException;
+
+    /**
+     * 使用预编译的模板渲染，未预编译时按模板字符串渲染
+     *
+     * @param templateKey 预编译时的模板标识
+     * @param template 模板字符串
+     * @param context 上下文对象
+     * @return 渲染后的字符串
+     * @throws TemplateRenderException 渲染失败时抛出
+     */
+    default String render(String templateKey, String template, Object context) throws TemplateRenderException {
+        return render(template, context);
+    }
     
     /**
      * 检查模板语法是否正确
@@ -34,6 +47,15 @@ public interface TemplateEngine {
         // 默认实现为空，子类可选择实现编译缓存
     }
     
+    /**
+     * 移除预编译的模板（可选）
+     *
+     * @param templateKey 模板标识
+     */
+    default void evict(String templateKey) {
+        // 默认实现为空
+    }
+
     /**
      * 清理编译缓存（可选）
      */
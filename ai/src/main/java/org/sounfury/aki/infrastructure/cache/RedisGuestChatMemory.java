@@ -0,0 +1,142 @@
+package org.sounfury.aki.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RListAsync;
+import org.redisson.client.codec.StringCodec;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.sounfury.aki.infrastructure.cache.RedisSessionService.GUEST_SESSION_PREFIX;
+import static org.sounfury.aki.infrastructure.cache.RedisSessionService.GUEST_SESSION_TTL;
+
+/**
+ * 游客会话记忆（Redis）
+ * 每个会话一个 Redis list，只保留最近 N 条消息；每条消息存为「类型码 + 文本」的纯字符串，不带类名和JSON结构。
+ * 与游客会话共用30分钟TTL，每次读写都在同一个批次里同时续期记忆和会话，多个节点共享同一份记忆。
+ * 写入（RPUSH + LTRIM + EXPIRE）和读取（LRANGE + EXPIRE）各只需一次往返
+ */
+@Slf4j
+@Component
+public class RedisGuestChatMemory implements ChatMemory {
+
+    /**
+     * 游客记忆Key前缀
+     */
+    private static final String GUEST_MEMORY_PREFIX = "guest_memory:";
+
+    private static final char USER_CODE = 'U';
+    private static final char ASSISTANT_CODE = 'A';
+    private static final char SYSTEM_CODE = 'S';
+
+    /**
+     * 每个会话保留的最大消息数
+     */
+    @Value("${aki.memory.guest-max-messages:20}")
+    private int maxMessages;
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        Assert.hasText(conversationId, "conversationId cannot be null or empty");
+        List<String> encoded = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            String value = encode(message);
+            if (value != null) {
+                encoded.add(value);
+            }
+        }
+        if (encoded.isEmpty()) {
+            return;
+        }
+
+        //并发写入时 LTRIM 总是保留最后 N 条，不需要事务
+        RBatch batch = RedisUtils.getClient()
+                .createBatch();
+        RListAsync<String> list = batch.getList(memoryKey(conversationId), StringCodec.INSTANCE);
+        list.addAllAsync(encoded);
+        list.trimAsync(-maxMessages, -1);
+        list.expireAsync(GUEST_SESSION_TTL);
+        touchSession(batch, conversationId);
+        batch.execute();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Message> get(String conversationId) {
+        Assert.hasText(conversationId, "conversationId cannot be null or empty");
+        RBatch batch = RedisUtils.getClient()
+                .createBatch();
+        RListAsync<String> list = batch.getList(memoryKey(conversationId), StringCodec.INSTANCE);
+        list.readAllAsync();
+        list.expireAsync(GUEST_SESSION_TTL);
+        touchSession(batch, conversationId);
+        BatchResult<?> result = batch.execute();
+
+        List<String> values = (List<String>) result.getResponses()
+                .get(0);
+        List<Message> messages = new ArrayList<>(values.size());
+        for (String value : values) {
+            Message message = decode(value);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        Assert.hasText(conversationId, "conversationId cannot be null or empty");
+        RedisUtils.deleteObject(memoryKey(conversationId));
+        log.debug("游客会话记忆已清除: conversationId={}", conversationId);
+    }
+
+    private static String memoryKey(String conversationId) {
+        return GUEST_MEMORY_PREFIX + conversationId;
+    }
+
+    /**
+     * 会话有活动时一并续期游客会话
+     */
+    private static void touchSession(RBatch batch, String conversationId) {
+        batch.getBucket(GUEST_SESSION_PREFIX + conversationId)
+                .expireAsync(GUEST_SESSION_TTL);
+    }
+
+    /**
+     * 编码为「类型码 + 文本」，工具调用等其他类型的消息不保存
+     */
+    private static String encode(Message message) {
+        String text = message.getText() == null ? "" : message.getText();
+        return switch (message.getMessageType()) {
+            case USER -> USER_CODE + text;
+            case ASSISTANT -> ASSISTANT_CODE + text;
+            case SYSTEM -> SYSTEM_CODE + text;
+            default -> null;
+        };
+    }
+
+    private static Message decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String text = value.substring(1);
+        return switch (value.charAt(0)) {
+            case USER_CODE -> new UserMessage(text);
+            case ASSISTANT_CODE -> new AssistantMessage(text);
+            case SYSTEM_CODE -> new SystemMessage(text);
+            default -> null;
+        };
+    }
+}
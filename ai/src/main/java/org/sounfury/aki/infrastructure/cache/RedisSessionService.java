@@ -24,12 +24,12 @@ public class RedisSessionService {
     /**
      * 游客会话TTL：30分钟
      */
-    private static final Duration GUEST_SESSION_TTL = Duration.ofMinutes(30);
+    static final Duration GUEST_SESSION_TTL = Duration.ofMinutes(30);
 
     /**
      * 游客会话Key前缀
      */
-    private static final String GUEST_SESSION_PREFIX = "guest_session:";
+    static final String GUEST_SESSION_PREFIX = "guest_session:";
 
     /**
      * 站长会话Key前缀
@@ -3,6 +3,7 @@ package org.sounfury.aki.infrastructure.llm;
 import io.micrometer.common.lang.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sounfury.core.utils.JsonUtils;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepositoryDialect;
 import org.springframework.ai.chat.messages.*;
@@ -22,25 +23,59 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 原有的 ChatMemoryRepository存在对话后更新历史对话的时间为最新时间的bug,这里使用自定义的repository避免
- *
+ * <p>
+ * 设置了 windowSize 时只通过 (conversation_id, timestamp) 索引读取最近 windowSize 条消息，
+ * 并在进程内按会话缓存这个窗口，saveAll 写库后同步追加到窗口，每轮对话的开销不随历史长度增长。
+ * 窗口缓存只在本进程内有效，直接改表的地方需要调用 {@link #evict(String)}
  */
 public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
+    /**
+     * 按时间倒序取最近 N 条再正序返回
+     */
+    private static final String SELECT_TAIL_MESSAGES_SQL = "SELECT content, type FROM (SELECT content, type, `timestamp` FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ? ORDER BY `timestamp` DESC LIMIT ?) t ORDER BY `timestamp`";
+
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
     private final JdbcChatMemoryRepositoryDialect dialect;
     private static final Logger logger = LoggerFactory.getLogger(MyJdbcChatMemoryRepository.class);
 
-    private MyJdbcChatMemoryRepository(JdbcTemplate jdbcTemplate, JdbcChatMemoryRepositoryDialect dialect, PlatformTransactionManager txManager) {
+    /**
+     * 每个会话读取的最近消息数，不大于0时读取全部历史且不缓存
+     */
+    private final int windowSize;
+
+    /**
+     * 最多缓存窗口的会话数
+     */
+    private final int cacheSize;
+
+    /**
+     * 会话id -> 最近消息窗口，按访问顺序淘汰
+     */
+    private final LinkedHashMap<String, ArrayDeque<Message>> windows = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 写入序号，读库期间发生过写入时不缓存读到的窗口
+     */
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    private MyJdbcChatMemoryRepository(JdbcTemplate jdbcTemplate, JdbcChatMemoryRepositoryDialect dialect, PlatformTransactionManager txManager,
+                                       int windowSize, int cacheSize) {
         Assert.notNull(jdbcTemplate, "jdbcTemplate cannot be null");
         Assert.notNull(dialect, "dialect cannot be null");
         this.jdbcTemplate = jdbcTemplate;
         this.dialect = dialect;
         this.transactionTemplate = new TransactionTemplate(txManager != null ? txManager : new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.windowSize = windowSize;
+        this.cacheSize = cacheSize;
     }
 
     public List<String> findConversationIds() {
@@ -49,7 +84,29 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
 
     public List<Message> findByConversationId(String conversationId) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
-        return this.jdbcTemplate.query(this.dialect.getSelectMessagesSql(), new MyJdbcChatMemoryRepository.MessageRowMapper(), new Object[]{conversationId});
+        if (windowSize <= 0) {
+            return this.jdbcTemplate.query(this.dialect.getSelectMessagesSql(), new MyJdbcChatMemoryRepository.MessageRowMapper(), new Object[]{conversationId});
+        }
+
+        synchronized (windows) {
+            ArrayDeque<Message> window = windows.get(conversationId);
+            if (window != null) {
+                return new ArrayList<>(window);
+            }
+        }
+        long sequence = writeSequence.get();
+        List<Message> messages = this.jdbcTemplate.query(SELECT_TAIL_MESSAGES_SQL, new MyJdbcChatMemoryRepository.MessageRowMapper(), conversationId, windowSize);
+        synchronized (windows) {
+            if (sequence == writeSequence.get()) {
+                windows.put(conversationId, new ArrayDeque<>(messages));
+                while (windows.size() > cacheSize) {
+                    windows.remove(windows.keySet()
+                            .iterator()
+                            .next());
+                }
+            }
+        }
+        return messages;
     }
 
     public void saveAll(String conversationId, List<Message> messages) {
@@ -58,16 +115,41 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
         Assert.noNullElements(messages, "messages cannot contain null elements");
 
         List<Message> newMessages=List.of(messages.get(messages.size()-1));
+        // 写库前后都递增写入序号，与之并发的读取不会缓存缺少或重复这条消息的窗口
+        writeSequence.incrementAndGet();
         this.transactionTemplate.execute((status) -> {
 //            this.deleteByConversationId(conversationId);
             this.jdbcTemplate.batchUpdate(this.dialect.getInsertMessageSql(), new MyJdbcChatMemoryRepository.AddBatchPreparedStatement(conversationId, newMessages));
             return null;
         });
+
+        // 写库成功后追加到窗口
+        synchronized (windows) {
+            writeSequence.incrementAndGet();
+            ArrayDeque<Message> window = windows.get(conversationId);
+            if (window != null) {
+                window.addAll(newMessages);
+                while (window.size() > windowSize) {
+                    window.removeFirst();
+                }
+            }
+        }
     }
 
     public void deleteByConversationId(String conversationId) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
         this.jdbcTemplate.update(this.dialect.getDeleteMessagesSql(), new Object[]{conversationId});
+        evict(conversationId);
+    }
+
+    /**
+     * 移除会话的窗口缓存，不经过本仓储修改记忆表后调用
+     */
+    public void evict(String conversationId) {
+        synchronized (windows) {
+            writeSequence.incrementAndGet();
+            windows.remove(conversationId);
+        }
     }
 
     public static MyJdbcChatMemoryRepository.Builder builder() {
@@ -87,12 +169,27 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
                 case USER -> var10000 = new UserMessage(content);
                 case ASSISTANT -> var10000 = new AssistantMessage(content);
                 case SYSTEM -> var10000 = new SystemMessage(content);
-                case TOOL -> var10000 = new ToolResponseMessage(List.of());
+                case TOOL -> var10000 = new ToolResponseMessage(toolResponses(content));
                 default -> throw new IncompatibleClassChangeError();
             }
 
             return (Message)var10000;
         }
+
+        /**
+         * 工具消息的内容是工具返回列表的JSON，旧数据没有内容时为空列表
+         */
+        private static List<ToolResponseMessage.ToolResponse> toolResponses(String content) {
+            if (content == null || content.isBlank()) {
+                return List.of();
+            }
+            try {
+                return JsonUtils.parseArray(content, ToolResponseMessage.ToolResponse.class);
+            } catch (Exception e) {
+                logger.warn("工具消息内容解析失败，按空结果处理", e);
+                return List.of();
+            }
+        }
     }
 
     public static final class Builder {
@@ -100,6 +197,8 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
         private JdbcChatMemoryRepositoryDialect dialect;
         private DataSource dataSource;
         private PlatformTransactionManager platformTransactionManager;
+        private int windowSize;
+        private int cacheSize = 64;
         private static final Logger logger = LoggerFactory.getLogger(MyJdbcChatMemoryRepository.Builder.class);
 
         private Builder() {
@@ -125,10 +224,24 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
             return this;
         }
 
+        /**
+         * 每个会话只读取并缓存最近 windowSize 条消息，应不小于 ChatMemory 的 maxMessages
+         */
+        public MyJdbcChatMemoryRepository.Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public MyJdbcChatMemoryRepository.Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
         public MyJdbcChatMemoryRepository build() {
             DataSource effectiveDataSource = this.resolveDataSource();
             JdbcChatMemoryRepositoryDialect effectiveDialect = this.resolveDialect(effectiveDataSource);
-            return new MyJdbcChatMemoryRepository(this.resolveJdbcTemplate(), effectiveDialect, this.platformTransactionManager);
+            return new MyJdbcChatMemoryRepository(this.resolveJdbcTemplate(), effectiveDialect, this.platformTransactionManager,
+                    this.windowSize, this.cacheSize);
         }
 
         private JdbcTemplate resolveJdbcTemplate() {
@@ -194,7 +307,9 @@ public class MyJdbcChatMemoryRepository implements ChatMemoryRepository {
         public void setValues(PreparedStatement ps, int i) throws SQLException {
             Message message = messages.get(i);
             ps.setString(1, conversationId);
-            ps.setString(2, message.getText());
+            ps.setString(2, message instanceof ToolResponseMessage toolResponseMessage
+                    ? JsonUtils.toJsonString(toolResponseMessage.getResponses())
+                    : message.getText());
             ps.setString(3, message.getMessageType().name());
             ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
         }
@@ -2,18 +2,24 @@ package org.sounfury.aki.infrastructure.llm.advisor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.sounfury.aki.infrastructure.llm.advisor.base.PromptLoggerAdvisor;
+import org.sounfury.aki.contracts.service.AdvisorFactoryPort;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Advisor缓存管理器
  * 负责缓存通用advisor，支持热重载和类型分组管理
+ * 角色advisor按 角色ID + 内容版本 缓存，容量有限，按最近最少使用淘汰；角色更新、删除或角色提示词模板更新时
+ * 递增版本，旧版本的缓存不再命中，加载期间版本变化的结果也不会写入
  */
 @Slf4j
 @Component
@@ -26,8 +32,27 @@ public class AdvisorCacheManager {
     // 系统级advisor缓存（按behaviorType区分）
     private final ConcurrentMap<String, List<Advisor>> systemAdvisors = new ConcurrentHashMap<>();
     
-    // 角色advisor缓存（懒加载）
-    private final ConcurrentMap<String, List<Advisor>> characterAdvisors = new ConcurrentHashMap<>();
+    // 角色advisor缓存（懒加载，LRU），访问顺序的LinkedHashMap，读写都需加锁
+    private final LinkedHashMap<String, CharacterAdvisors> characterAdvisors = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 角色内容版本，角色更新、删除时递增
+    private final ConcurrentMap<String, Long> characterVersions = new ConcurrentHashMap<>();
+
+    // 全部角色的版本，角色提示词模板更新时递增
+    private final AtomicLong characterGeneration = new AtomicLong();
+
+    // 角色advisor缓存最大角色数
+    @Value("${aki.advisor.character-cache-size:64}")
+    private int characterCacheSize;
+
+    private final LongAdder characterHits = new LongAdder();
+    private final LongAdder characterMisses = new LongAdder();
+    private final LongAdder characterLoads = new LongAdder();
+    private final LongAdder characterEvictions = new LongAdder();
+    private final LongAdder characterInvalidations = new LongAdder();
+
+    private record CharacterAdvisors(long version, List<Advisor> advisors) {
+    }
 
 
 
@@ -49,17 +74,78 @@ public class AdvisorCacheManager {
     }
 
     /**
-     * 获取角色advisor（懒加载）
+     * 角色当前的内容版本，加载角色前读取，写入缓存时带上
+     */
+    public long getCharacterVersion(String characterId) {
+        //两部分各自单调递增，合并后同样单调递增
+        return characterGeneration.get() * (1L << 32) + characterVersions.getOrDefault(characterId, 0L);
+    }
+
+    /**
+     * 获取角色advisor（懒加载），版本已过期的视为不存在
      */
     public List<Advisor> getCharacterAdvisor(String characterId) {
-        return characterAdvisors.get(characterId);
+        long version = getCharacterVersion(characterId);
+        synchronized (characterAdvisors) {
+            CharacterAdvisors cached = characterAdvisors.get(characterId);
+            return cached != null && cached.version() == version ? cached.advisors() : null;
+        }
     }
 
     /**
-     * 设置角色advisor
+     * 设置角色advisor，使用当前版本
      */
     public void setCharacterAdvisor(String characterId, List<Advisor> advisors) {
-        characterAdvisors.put(characterId, advisors);
+        setCharacterAdvisor(characterId, getCharacterVersion(characterId), advisors);
+    }
+
+    /**
+     * 设置角色advisor
+     *
+     * @param version 加载角色前读取的版本，加载期间角色被更新则不写入
+     */
+    public void setCharacterAdvisor(String characterId, long version, List<Advisor> advisors) {
+        characterLoads.increment();
+        if (version != getCharacterVersion(characterId)) {
+            log.debug("角色advisor加载期间角色已更新，不写入缓存: {}", characterId);
+            return;
+        }
+        synchronized (characterAdvisors) {
+            characterAdvisors.put(characterId, new CharacterAdvisors(version, advisors));
+            while (characterAdvisors.size() > characterCacheSize) {
+                String eldest = characterAdvisors.keySet()
+                        .iterator()
+                        .next();
+                characterAdvisors.remove(eldest);
+                characterEvictions.increment();
+                log.debug("角色advisor缓存已满，淘汰: {}", eldest);
+            }
+        }
+    }
+
+    /**
+     * 角色更新、删除后使其缓存失效
+     */
+    public void invalidateCharacter(String characterId) {
+        characterVersions.merge(characterId, 1L, Long::sum);
+        characterInvalidations.increment();
+        removeCharacterAdvisor(characterId);
+    }
+
+    /**
+     * 角色advisor缓存统计
+     */
+    public AdvisorFactoryPort.CharacterCacheStats getCharacterCacheStats() {
+        int size;
+        synchronized (characterAdvisors) {
+            size = characterAdvisors.size();
+        }
+        long hits = characterHits.sum();
+        long misses = characterMisses.sum();
+        long total = hits + misses;
+        return new AdvisorFactoryPort.CharacterCacheStats(size, characterCacheSize, hits, misses,
+                total == 0 ? 0 : (double) hits / total, characterLoads.sum(), characterEvictions.sum(),
+                characterInvalidations.sum());
     }
 
     /**
@@ -96,14 +182,18 @@ public class AdvisorCacheManager {
      * 移除角色advisor
      */
     public void removeCharacterAdvisor(String characterId) {
-        characterAdvisors.remove(characterId);
+        synchronized (characterAdvisors) {
+            characterAdvisors.remove(characterId);
+        }
     }
 
     /**
-     * 检查角色advisor是否存在
+     * 检查角色advisor是否存在（当前版本），计入命中率统计
      */
     public boolean hasCharacterAdvisor(String characterId) {
-        return characterAdvisors.containsKey(characterId);
+        boolean hit = getCharacterAdvisor(characterId) != null;
+        (hit ? characterHits : characterMisses).increment();
+        return hit;
     }
 
     /**
@@ -119,8 +209,13 @@ public class AdvisorCacheManager {
      * 清除所有角色advisor缓存
      */
     public void clearAllCharacterAdvisors() {
-        int count = characterAdvisors.size();
-        characterAdvisors.clear();
+        characterGeneration.incrementAndGet();
+        characterInvalidations.increment();
+        int count;
+        synchronized (characterAdvisors) {
+            count = characterAdvisors.size();
+            characterAdvisors.clear();
+        }
         log.info("清除所有角色advisor缓存，共{}个", count);
     }
 
@@ -175,11 +175,26 @@ public class SpringAiAdvisorAdapter implements AdvisorFactoryPort {
 
     @Override
     public boolean containsCharacter(String characterId) {
-        return false;
+        return advisorCacheManager.hasCharacterAdvisor(characterId);
+    }
+
+    @Override
+    public long characterVersion(String characterId) {
+        return advisorCacheManager.getCharacterVersion(characterId);
+    }
+
+    @Override
+    public CharacterCacheStats characterCacheStats() {
+        return advisorCacheManager.getCharacterCacheStats();
     }
 
     @Override
     public void createAndCacheAdvisors(PromptSpec promptSpec, String characterId) {
+        createAndCacheAdvisors(promptSpec, characterId, advisorCacheManager.getCharacterVersion(characterId));
+    }
+
+    @Override
+    public void createAndCacheAdvisors(PromptSpec promptSpec, String characterId, long version) {
         if (promptSpec == null || promptSpec.getAssembledPrompt() == null) {
             log.warn("PromptSpec或AssembledPrompt为空，无法创建advisor");
             return;
@@ -190,7 +205,7 @@ public class SpringAiAdvisorAdapter implements AdvisorFactoryPort {
 
         List<Advisor> characterAdvisors = promptAdvisorFactory.createCharacterAdvisors(characterPrompt);
         if (characterAdvisors != null && !characterAdvisors.isEmpty()) {
-            advisorCacheManager.setCharacterAdvisor(characterId, characterAdvisors);
+            advisorCacheManager.setCharacterAdvisor(characterId, version, characterAdvisors);
             log.debug("创建并缓存角色advisor: {}, 数量: {}", characterId, characterAdvisors.size());
         }
     }
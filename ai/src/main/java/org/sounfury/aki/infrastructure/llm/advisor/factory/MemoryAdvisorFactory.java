@@ -3,6 +3,7 @@ package org.sounfury.aki.infrastructure.llm.advisor.factory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sounfury.aki.domain.conversation.session.SessionMemoryPolicy;
+import org.sounfury.aki.infrastructure.cache.RedisGuestChatMemory;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.chat.memory.ChatMemory;
@@ -22,6 +23,7 @@ import org.springframework.stereotype.Service;
 public class MemoryAdvisorFactory {
 
     private final ChatMemory jdbcChatMemory;
+    private final RedisGuestChatMemory guestChatMemory;
 
     /**
      * 根据存储类型创建记忆Advisor
@@ -42,20 +44,13 @@ public class MemoryAdvisorFactory {
     
     /**
      * 创建会话内存Advisor（游客使用）
-     * 使用InMemoryChatMemoryRepository，页面刷新即清除
+     * 使用Redis存储最近的消息，与游客会话一起过期，多个节点共享
      */
     private Advisor createSessionMemoryAdvisor() {
 
         try {
-            // 为每个会话创建独立的内存存储
-            ChatMemoryRepository inMemoryRepository = new InMemoryChatMemoryRepository();
-
-            ChatMemory chatMemory = MessageWindowChatMemory.builder()
-                    .chatMemoryRepository(inMemoryRepository)
-                    .build();
-
             // 创建Memory Advisor，conversationId由应用层传递
-            Advisor advisor = MessageChatMemoryAdvisor.builder(chatMemory)
+            Advisor advisor = MessageChatMemoryAdvisor.builder(guestChatMemory)
                     .build();
 
             log.debug("会话内存Advisor创建成功");
@@ -1,5 +1,6 @@
 package org.sounfury.aki.infrastructure.llm.handler;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sounfury.aki.domain.prompt.persona.event.CharacterDeleted;
@@ -8,12 +9,17 @@ import org.sounfury.aki.domain.shared.event.DomainEvent;
 import org.sounfury.aki.domain.shared.event.DomainEventHandler;
 import org.sounfury.aki.infrastructure.llm.advisor.AdvisorCacheManager;
 import org.sounfury.aki.infrastructure.shared.event.DomainEventWrapper;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.utils.RedisUtils;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import static org.sounfury.core.constant.RedisKeyConstant.AKI_CHARACTER_TOPIC;
+
 /**
  * 角色更新事件处理器
- * 监听角色更新和删除事件，清除相关的advisor缓存
+ * 监听角色更新和删除事件，递增角色版本并清除相关的advisor缓存；
+ * 事务提交后通过 Redis topic 通知所有节点，各节点收到后失效本地缓存的角色advisor
  */
 @Slf4j
 @Component
@@ -22,6 +28,11 @@ public class CharacterUpdatedEventHandler {
 
     private final AdvisorCacheManager advisorCacheManager;
 
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(AKI_CHARACTER_TOPIC, String.class, advisorCacheManager::invalidateCharacter);
+    }
+
     /**
      * 处理角色更新事件
      */
@@ -37,8 +48,8 @@ public class CharacterUpdatedEventHandler {
             log.info("处理角色更新事件: characterId={}, updateType={}", 
                     event.getCharacterId(), event.getUpdateType());
             
-            // 清除角色advisor缓存
-            advisorCacheManager.removeCharacterAdvisor(event.getCharacterId());
+            // 递增角色版本并清除缓存；事件在事务内发布，提交后再通知所有节点（含本节点）失效一次，避免提交前并发加载的旧内容留在缓存中
+            invalidate(event.getCharacterId());
             
             log.info("角色advisor缓存清除成功: characterId={}", event.getCharacterId());
             
@@ -62,8 +73,8 @@ public class CharacterUpdatedEventHandler {
         try {
             log.info("处理角色删除事件: characterId={}", event.getCharacterId());
             
-            // 清除角色advisor缓存
-            advisorCacheManager.removeCharacterAdvisor(event.getCharacterId());
+            // 递增角色版本并清除缓存；事件在事务内发布，提交后再通知所有节点（含本节点）失效一次，避免提交前并发加载的旧内容留在缓存中
+            invalidate(event.getCharacterId());
             
             log.info("角色advisor缓存清除成功: characterId={}", event.getCharacterId());
             
@@ -72,4 +83,17 @@ public class CharacterUpdatedEventHandler {
             // 不抛出异常，避免影响其他事件处理
         }
     }
+
+    private void invalidate(String characterId) {
+        advisorCacheManager.invalidateCharacter(characterId);
+        TransactionUtils.afterCommit(() -> {
+            try {
+                RedisUtils.publish(AKI_CHARACTER_TOPIC, characterId);
+            } catch (Exception e) {
+                //通知失败时至少失效本节点，其他节点的缓存按 LRU 淘汰前会继续使用旧角色
+                log.warn("角色advisor失效通知失败: characterId={}", characterId, e);
+                advisorCacheManager.invalidateCharacter(characterId);
+            }
+        });
+    }
 }
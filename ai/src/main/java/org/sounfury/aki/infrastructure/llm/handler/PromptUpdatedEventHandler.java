@@ -1,17 +1,25 @@
 package org.sounfury.aki.infrastructure.llm.handler;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sounfury.aki.domain.prompt.event.PromptUpdated;
+import org.sounfury.aki.domain.prompt.service.PromptRegistry;
 import org.sounfury.aki.domain.shared.event.DomainEvent;
 import org.sounfury.aki.infrastructure.llm.advisor.AdvisorCacheManager;
 import org.sounfury.aki.infrastructure.shared.event.DomainEventWrapper;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.utils.RedisUtils;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import static org.sounfury.core.constant.RedisKeyConstant.AKI_PROMPT_TOPIC;
+
 /**
  * 提示词更新事件处理器
- * 监听提示词更新事件，根据categoryKey类型精确清除相关缓存
+ * 监听提示词更新事件，事务提交后通过 Redis topic 通知所有节点（含本节点）；
+ * 各节点收到后先重新加载注册表中的提示词，再根据categoryKey类型精确清除相关缓存，
+ * 避免advisor在提交前按旧模板重建
  */
 @Slf4j
 @Component
@@ -19,6 +27,12 @@ import org.springframework.stereotype.Component;
 public class PromptUpdatedEventHandler {
 
     private final AdvisorCacheManager advisorCacheManager;
+    private final PromptRegistry promptRegistry;
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(AKI_PROMPT_TOPIC, String.class, this::refresh);
+    }
 
     /**
      * 处理提示词更新事件
@@ -31,10 +45,23 @@ public class PromptUpdatedEventHandler {
         }
         
         PromptUpdated event = (PromptUpdated) domainEvent;
+        String categoryKey = event.getCategoryKey();
+        TransactionUtils.afterCommit(() -> {
+            try {
+                RedisUtils.publish(AKI_PROMPT_TOPIC, categoryKey);
+            } catch (Exception e) {
+                //通知失败时至少刷新本节点
+                log.warn("提示词更新通知失败: categoryKey={}", categoryKey, e);
+                refresh(categoryKey);
+            }
+        });
+    }
+
+    private void refresh(String categoryKey) {
         try {
-            log.info("处理提示词更新事件: categoryKey={}", event.getCategoryKey());
-            
-            String categoryKey = event.getCategoryKey();
+            log.info("处理提示词更新事件: categoryKey={}", categoryKey);
+
+            promptRegistry.reload(categoryKey);
             
             // 根据categoryKey类型决定缓存清理策略
             if (isSystemPromptCategory(categoryKey)) {
@@ -54,7 +81,7 @@ public class PromptUpdatedEventHandler {
             }
             
         } catch (Exception e) {
-            log.error("处理提示词更新事件失败: categoryKey={}", event.getCategoryKey(), e);
+            log.error("处理提示词更新事件失败: categoryKey={}", categoryKey, e);
             // 不抛出异常，避免影响其他事件处理
         }
     }
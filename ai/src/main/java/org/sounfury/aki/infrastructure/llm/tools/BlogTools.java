@@ -31,9 +31,9 @@ public class BlogTools {
     }
 
     /**
-     * 根据文章标题模糊查询文章内容
+     * 根据关键词全文检索文章（标题、摘要、正文）
      */
-    @Tool(name = "search_articles_by_name", description = "Search Blog articles by title name using fuzzy matching. Call this when user wants to find articles by title keywords.")
+    @Tool(name = "search_articles_by_name", description = "Search Blog articles by keywords in title, summary and content, ranked by relevance. Call this when user wants to find articles about a topic or by title keywords.")
     public String searchArticlesByName(String titleKeyword) {
         try {
             String searchResults = blogService.searchArticlesByName(titleKeyword);
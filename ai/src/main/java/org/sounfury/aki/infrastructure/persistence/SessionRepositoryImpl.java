@@ -6,12 +6,19 @@ import org.jooq.Configuration;
 import org.jooq.JSON;
 import org.sounfury.aki.domain.conversation.session.*;
 import org.sounfury.aki.domain.conversation.session.repository.SessionRepository;
+import org.sounfury.aki.infrastructure.cache.RedisGuestChatMemory;
 import org.sounfury.aki.infrastructure.cache.RedisSessionService;
+import org.sounfury.aki.infrastructure.llm.MyJdbcChatMemoryRepository;
 import org.sounfury.aki.jooq.enums.SpringAiChatMemoryType;
 import org.sounfury.aki.jooq.tables.daos.SessionDao;
 import org.sounfury.aki.jooq.tables.pojos.SessionPojo;
 import org.sounfury.aki.jooq.tables.pojos.SpringAiChatMemoryPojo;
+import org.sounfury.core.convention.exception.ClientException;
 import org.sounfury.core.utils.JsonUtils;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
+import org.sounfury.jooq.page.utils.JooqPageHelper;
+import org.sounfury.jooq.utils.TransactionUtils;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -31,10 +38,15 @@ import static org.sounfury.aki.jooq.tables.SpringAiChatMemory.SPRING_AI_CHAT_MEM
 public class SessionRepositoryImpl extends SessionDao implements SessionRepository {
 
     private final RedisSessionService redisSessionService;
+    private final RedisGuestChatMemory guestChatMemory;
+    private final MyJdbcChatMemoryRepository chatMemoryRepository;
 
-    public SessionRepositoryImpl(Configuration configuration, RedisSessionService redisSessionService) {
+    public SessionRepositoryImpl(Configuration configuration, RedisSessionService redisSessionService,
+                                 RedisGuestChatMemory guestChatMemory, MyJdbcChatMemoryRepository chatMemoryRepository) {
         super(configuration);
         this.redisSessionService = redisSessionService;
+        this.guestChatMemory = guestChatMemory;
+        this.chatMemoryRepository = chatMemoryRepository;
     }
 
 
@@ -84,34 +96,30 @@ public class SessionRepositoryImpl extends SessionDao implements SessionReposito
     }
 
     @Override
-    public List<SessionMemory> findSessionMemories(SessionId sessionId, java.time.LocalDateTime cursor, int limit) {
+    public CursorPageRepDto<List<SessionMemory>> findSessionMemories(SessionId sessionId, String cursor, int limit) {
         try {
             var query = ctx()
                     .selectFrom(SPRING_AI_CHAT_MEMORY)
                     .where(SPRING_AI_CHAT_MEMORY.CONVERSATION_ID.eq(sessionId.getValue()));
 
-            if(cursor==null) {
-                // 查询最新记录
-                cursor = java.time.LocalDateTime.now();
-            }
-            // 添加游标条件
-
-            query = query.and(SPRING_AI_CHAT_MEMORY.TIMESTAMP.lt(cursor));
-
-
-            List<SpringAiChatMemoryPojo> memoryPojos = query
-                    .orderBy(SPRING_AI_CHAT_MEMORY.TIMESTAMP.desc())
-                    .limit(limit)
-                    .fetchInto(SpringAiChatMemoryPojo.class);
-
-            return memoryPojos.stream()
-                    .map(this::toSessionMemory)
-                    .filter(java.util.Objects::nonNull)
-                    .collect(Collectors.toList());
+            // timestamp 只精确到秒，同一秒内的提问和回复会相同，按 (timestamp, id) 倒序 seek，多取一条判断是否还有更多
+            CursorPageReqDto pageRequest = new CursorPageReqDto(limit, cursor);
+            pageRequest.setSortBy(SPRING_AI_CHAT_MEMORY.TIMESTAMP.getName() + " desc");
+            CursorPageRepDto<List<SessionMemory>> page = JooqPageHelper.getCursorPage(
+                    query,
+                    pageRequest,
+                    SPRING_AI_CHAT_MEMORY.ID,
+                    configuration().dsl(),
+                    record -> toSessionMemory(record.into(SpringAiChatMemoryPojo.class)));
+            page.getData()
+                    .removeIf(java.util.Objects::isNull);
+            return page;
+        } catch (ClientException e) {
+            throw e;
         } catch (Exception e) {
             log.error("分页查询会话记忆失败: sessionId={}, cursor={}, limit={}",
                     sessionId.getValue(), cursor, limit, e);
-            return List.of();
+            return new CursorPageRepDto<>(List.of(), null, null, false, false, null);
         }
     }
 
@@ -145,8 +153,9 @@ public class SessionRepositoryImpl extends SessionDao implements SessionReposito
     @Override
     public void deleteWithMemories(SessionId sessionId) {
         if (sessionId.isGuestSession()) {
-            // 游客会话：仅删除Redis中的会话数据
+            // 游客会话：删除Redis中的会话数据和记忆
             redisSessionService.deleteSession(sessionId);
+            guestChatMemory.clear(sessionId.getValue());
             log.info("游客会话已删除: sessionId={}", sessionId.getValue());
         } else {
             // 站长会话：删除Redis + 数据库会话 + 级联删除相关记忆
@@ -290,6 +299,9 @@ public class SessionRepositoryImpl extends SessionDao implements SessionReposito
                     .deleteFrom(SPRING_AI_CHAT_MEMORY)
                     .where(SPRING_AI_CHAT_MEMORY.CONVERSATION_ID.eq(sessionId.getValue()))
                     .execute();
+            // 提交后再清一次，避免提交前的并发读取把已删除的消息重新放入窗口缓存
+            chatMemoryRepository.evict(sessionId.getValue());
+            TransactionUtils.afterCommit(() -> chatMemoryRepository.evict(sessionId.getValue()));
             log.debug("从数据库删除会话记忆: sessionId={}, 删除数量={}", sessionId.getValue(), deletedCount);
         } catch (Exception e) {
             log.error("从数据库删除会话记忆失败: sessionId={}", sessionId.getValue(), e);
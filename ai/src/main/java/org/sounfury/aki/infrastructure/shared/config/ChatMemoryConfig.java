@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
@@ -26,6 +27,11 @@ import javax.sql.DataSource;
 @Configuration
 public class ChatMemoryConfig {
 
+    /**
+     * 站长用户保持的历史消息数
+     */
+    private static final int OWNER_MAX_MESSAGES = 50;
+
 
     /**
      * 配置默认的ChatMemoryRepository
@@ -44,25 +50,31 @@ public class ChatMemoryConfig {
         return JdbcChatMemoryRepositoryDialect.from(ds);
     }
 
+    /**
+     * 只读取最近的消息，与ChatMemory的窗口大小一致
+     */
     @Bean("MyJdbcChatMemoryRepository")
-    public ChatMemoryRepository chatMemoryRepository(JdbcTemplate jdbcTemplate,JdbcChatMemoryRepositoryDialect chatDialect){
+    public MyJdbcChatMemoryRepository chatMemoryRepository(JdbcTemplate jdbcTemplate,JdbcChatMemoryRepositoryDialect chatDialect){
         return MyJdbcChatMemoryRepository
                 .builder()
                 .jdbcTemplate(jdbcTemplate)
                 .dialect(chatDialect)
+                .windowSize(OWNER_MAX_MESSAGES)
                 .build();
     }
 
     /**
      * 配置站长用户的ChatMemory
      * 使用JDBC存储，保持更多历史消息
+     * 游客记忆 {@link org.sounfury.aki.infrastructure.cache.RedisGuestChatMemory} 也是ChatMemory，按类型注入时优先使用这里
      */
     @Bean
+    @Primary
     public ChatMemory jdbcChatMemory( @Qualifier("MyJdbcChatMemoryRepository")ChatMemoryRepository jdbcChatMemoryRepository) {
-        log.info("配置JDBC ChatMemory，最大消息数: 50");
+        log.info("配置JDBC ChatMemory，最大消息数: {}", OWNER_MAX_MESSAGES);
         return MessageWindowChatMemory.builder()
                 .chatMemoryRepository(jdbcChatMemoryRepository)
-                .maxMessages(50) // 站长用户保持更多历史消息
+                .maxMessages(OWNER_MAX_MESSAGES) // 站长用户保持更多历史消息
                 .build();
     }
 
@@ -0,0 +1,202 @@
+package org.sounfury.aki.infrastructure.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.aki.domain.prompt.contract.TemplateAlias;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 上下文类型的访问计划
+ * 每个类型只在首次渲染时分析一次字段和别名，并为每个字段生成取值函数：
+ * 优先用 LambdaMetafactory 把 getter 变成普通的函数调用，没有可用 getter 时退回字段的 MethodHandle。
+ * 渲染时用 {@link #view(Object)} 包装上下文对象，按名称取值时才调用取值函数，不复制字段也不创建 HashMap
+ */
+@Slf4j
+final class ContextAccessorPlan {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 模板中可用的名称（字段名和别名） -> 取值函数
+     */
+    private final Map<String, Function<Object, Object>> accessors;
+
+    /**
+     * 是否声明了别名，没有别名的类型直接使用原对象
+     */
+    private final boolean aliased;
+
+    private ContextAccessorPlan(Map<String, Function<Object, Object>> accessors, boolean aliased) {
+        this.accessors = accessors;
+        this.aliased = aliased;
+    }
+
+    static ContextAccessorPlan of(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        boolean aliased = false;
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            fields.add(field);
+            aliased |= alias(field) != null;
+        }
+        if (!aliased) {
+            return new ContextAccessorPlan(Map.of(), false);
+        }
+
+        //原字段名和别名都可以访问
+        Map<String, Function<Object, Object>> accessors = new HashMap<>();
+        for (Field field : fields) {
+            Function<Object, Object> accessor = accessor(clazz, field);
+            accessors.put(field.getName(), accessor);
+            String alias = alias(field);
+            if (alias != null) {
+                accessors.put(alias, accessor);
+                log.debug("发现模板别名映射: {} -> {}", alias, field.getName());
+            }
+        }
+        log.debug("类 {} 的访问计划: {}", clazz.getSimpleName(), accessors.keySet());
+        return new ContextAccessorPlan(Map.copyOf(accessors), true);
+    }
+
+    private static String alias(Field field) {
+        TemplateAlias alias = field.getAnnotation(TemplateAlias.class);
+        if (alias == null || alias.value() == null || alias.value()
+                .trim()
+                .isEmpty()) {
+            return null;
+        }
+        return alias.value();
+    }
+
+    boolean isAliased() {
+        return aliased;
+    }
+
+    /**
+     * 包装上下文对象，按计划中的名称取值
+     */
+    Map<String, Object> view(Object target) {
+        return new View(this, target);
+    }
+
+    /**
+     * 生成字段的取值函数
+     */
+    private static Function<Object, Object> accessor(Class<?> clazz, Field field) {
+        Method getter = findGetter(clazz, field);
+        if (getter != null) {
+            try {
+                return lambdaGetter(getter);
+            } catch (Throwable e) {
+                log.debug("getter 无法生成取值函数，改用 MethodHandle: {}.{}", clazz.getSimpleName(), getter.getName());
+            }
+        }
+        try {
+            MethodHandle handle = MethodHandles.privateLookupIn(clazz, LOOKUP)
+                    .unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return target -> {
+                try {
+                    return handle.invokeExact(target);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("读取模板上下文字段失败: " + field.getName(), e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问模板上下文字段: " + clazz.getName() + "." + field.getName(), e);
+        }
+    }
+
+    /**
+     * 用 LambdaMetafactory 把公开的 getter 包装成 Function
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambdaGetter(Method getter) throws Throwable {
+        MethodHandle handle = LOOKUP.unreflect(getter);
+        Class<?> returnType = MethodType.methodType(getter.getReturnType())
+                .wrap()
+                .returnType();
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                MethodType.methodType(returnType, getter.getDeclaringClass()));
+        return (Function<Object, Object>) site.getTarget()
+                .invokeExact();
+    }
+
+    private static Method findGetter(Class<?> clazz, Field field) {
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        List<String> candidates = new ArrayList<>(2);
+        if (field.getType() == boolean.class) {
+            candidates.add("is" + suffix);
+        }
+        candidates.add("get" + suffix);
+        for (String candidate : candidates) {
+            try {
+                Method method = clazz.getMethod(candidate);
+                if (method.getReturnType() == field.getType() && Modifier.isPublic(method.getDeclaringClass()
+                        .getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                //没有对应的 getter
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 上下文对象的只读视图，Handlebars 按 Map 解析时只调用 get
+     */
+    private static final class View extends AbstractMap<String, Object> {
+        private final ContextAccessorPlan plan;
+        private final Object target;
+
+        private View(ContextAccessorPlan plan, Object target) {
+            this.plan = plan;
+            this.target = target;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Function<Object, Object> accessor = key instanceof String ? plan.accessors.get(key) : null;
+            return accessor == null ? null : accessor.apply(target);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && plan.accessors.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return plan.accessors.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Set<Entry<String, Object>> entries = new LinkedHashSet<>();
+            plan.accessors.forEach((name, accessor) -> entries.add(new SimpleImmutableEntry<>(name, accessor.apply(target))));
+            return entries;
+        }
+    }
+}
@@ -16,19 +16,28 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Handlebars模板引擎实现
  * 提供模板编译缓存和基础Helper功能
+ * 预编译的模板按调用方给的key缓存，由调用方负责移除；按模板字符串渲染的编译结果以模板全文为key，
+ * 避免不同模板hash冲突，数量超过上限时整体清空
  */
 @Slf4j
 @Component
 public class HandlebarsTemplateEngine implements TemplateEngine {
 
+    /**
+     * 按模板字符串缓存的编译结果上限
+     */
+    private static final int MAX_INLINE_TEMPLATES = 256;
+
     private final Handlebars handlebars;
     private final ConcurrentMap<String, Template> templateCache;
+    private final ConcurrentMap<String, Template> inlineTemplateCache;
     private final TemplateContextProcessor contextProcessor;
 
     public HandlebarsTemplateEngine(TemplateContextProcessor contextProcessor) {
         this.contextProcessor = contextProcessor;
         this.handlebars = new Handlebars();
         this.templateCache = new ConcurrentHashMap<>();
+        this.inlineTemplateCache = new ConcurrentHashMap<>();
         
         // 注册基础Helper
         registerHelpers();
@@ -38,20 +47,20 @@ public class HandlebarsTemplateEngine implements TemplateEngine {
 
     @Override
     public String render(String template, Object context) throws TemplateRenderException {
+        return render(null, template, context);
+    }
+
+    @Override
+    public String render(String templateKey, String template, Object context) throws TemplateRenderException {
         if (template == null || template.trim().isEmpty()) {
             return "";
         }
 
         try {
-            // 使用模板内容的hash作为缓存key
-            String cacheKey = String.valueOf(template.hashCode());
-            Template compiledTemplate = templateCache.computeIfAbsent(cacheKey, k -> {
-                try {
-                    return handlebars.compileInline(template);
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to compile template", e);
-                }
-            });
+            Template compiledTemplate = templateKey != null ? templateCache.get(templateKey) : null;
+            if (compiledTemplate == null) {
+                compiledTemplate = compileInline(template);
+            }
 
             // 处理模板别名映射
             Object processedContext = contextProcessor.processContext(context);
@@ -100,13 +109,41 @@ public class HandlebarsTemplateEngine implements TemplateEngine {
         }
     }
 
+    @Override
+    public void evict(String templateKey) {
+        if (templateKey != null && templateCache.remove(templateKey) != null) {
+            log.debug("Template evicted from cache: key={}", templateKey);
+        }
+    }
+
     @Override
     public void clearCache() {
-        int size = templateCache.size();
+        int size = templateCache.size() + inlineTemplateCache.size();
         templateCache.clear();
+        inlineTemplateCache.clear();
         log.info("Template cache cleared, {} templates removed", size);
     }
 
+    /**
+     * 按模板全文缓存编译结果
+     */
+    private Template compileInline(String template) {
+        Template compiledTemplate = inlineTemplateCache.get(template);
+        if (compiledTemplate != null) {
+            return compiledTemplate;
+        }
+        try {
+            compiledTemplate = handlebars.compileInline(template);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compile template", e);
+        }
+        if (inlineTemplateCache.size() >= MAX_INLINE_TEMPLATES) {
+            inlineTemplateCache.clear();
+        }
+        inlineTemplateCache.put(template, compiledTemplate);
+        return compiledTemplate;
+    }
+
     /**
      * 注册基础Helper函数
      */
@@ -158,6 +195,6 @@ public class HandlebarsTemplateEngine implements TemplateEngine {
      * 获取缓存统计信息
      */
     public int getCacheSize() {
-        return templateCache.size();
+        return templateCache.size() + inlineTemplateCache.size();
     }
 }
@@ -0,0 +1,134 @@
+package org.sounfury.benchmark.aki;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sounfury.aki.domain.prompt.context.CharCtx;
+import org.sounfury.aki.domain.prompt.context.PromptContext;
+import org.sounfury.aki.domain.prompt.context.TaskCtx;
+import org.sounfury.aki.domain.prompt.context.UserCtx;
+import org.sounfury.aki.domain.prompt.contract.TemplateAlias;
+import org.sounfury.aki.infrastructure.template.TemplateContextProcessor;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板上下文：{@link TemplateContextProcessor} 按类型缓存访问计划后返回的只读视图 vs 原先每次渲染反射复制字段到 HashMap
+ * wrap* 只比较包装上下文并读取模板用到的名称，render* 比较完整的 Handlebars 渲染延迟。
+ * 分配速率用 GC profiler 查看：java -jar benchmark/target/benchmarks.jar TemplateContextBenchmark -prof gc，
+ * 对比 gc.alloc.rate.norm（每次调用分配的字节数）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateContextBenchmark {
+    private static final String TEMPLATE = """
+            你是{{char.name}}。{{char.persona}}
+            世界设定：{{char.worldScenario}}
+            {{#if user.isOwner}}正在和你对话的是站长{{user.name}}。{{else}}正在和你对话的是访客{{user.name}}。{{/if}}
+            当前任务：{{task.type}}，输入：{{task.input}}
+            """;
+
+    private PromptContext context;
+    private TemplateContextProcessor processor;
+    private Template template;
+
+    @Setup
+    public void setup() throws IOException {
+        context = PromptContext.builder()
+                .user(UserCtx.builder()
+                        .name("访客")
+                        .isOwner(false)
+                        .build())
+                .charCtx(CharCtx.builder()
+                        .id("aki")
+                        .name("Aki")
+                        .persona("一个热情、好奇、说话简洁的博客助手，喜欢用例子解释问题。")
+                        .worldScenario("你住在这个博客里，熟悉站点上的每一篇文章。")
+                        .greeting("你好，我是 Aki。")
+                        .exampleDialogue("用户：你是谁？\nAki：我是这个博客的助手。")
+                        .build())
+                .task(TaskCtx.builder()
+                        .type("summary")
+                        .input("请总结这篇文章的要点")
+                        .build())
+                .build();
+        processor = new TemplateContextProcessor();
+        template = new Handlebars().compileInline(TEMPLATE);
+    }
+
+    @Benchmark
+    public Object wrapAccessorPlan() {
+        return readTemplateNames(view());
+    }
+
+    @Benchmark
+    public Object wrapReflectiveWalk() throws IllegalAccessException {
+        Map<String, Object> copy = reflectiveWalk(context);
+        return readTemplateNames(copy);
+    }
+
+    @Benchmark
+    public String renderAccessorPlan() throws IOException {
+        return template.apply(view());
+    }
+
+    /**
+     * PromptContext 声明了别名，处理结果总是只读视图
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> view() {
+        return (Map<String, Object>) processor.processContext(context);
+    }
+
+    @Benchmark
+    public String renderReflectiveWalk() throws IOException, IllegalAccessException {
+        return template.apply(reflectiveWalk(context));
+    }
+
+    /**
+     * 模板中引用的顶层名称
+     */
+    private static Object readTemplateNames(Map<String, Object> context) {
+        Object user = context.get("user");
+        Object character = context.get("char");
+        Object task = context.get("task");
+        return user != null && character != null ? task : null;
+    }
+
+    /**
+     * 原 TemplateContextProcessor 的做法：每次渲染反射读取所有字段，连同别名复制到新的 HashMap
+     */
+    private static Map<String, Object> reflectiveWalk(Object target) throws IllegalAccessException {
+        Map<String, Object> wrapperMap = new HashMap<>();
+        for (Field field : target.getClass()
+                .getDeclaredFields()) {
+            field.setAccessible(true);
+            Object fieldValue = field.get(target);
+            wrapperMap.put(field.getName(), fieldValue);
+            TemplateAlias alias = field.getAnnotation(TemplateAlias.class);
+            if (alias != null && alias.value() != null && !alias.value()
+                    .trim()
+                    .isEmpty()) {
+                wrapperMap.put(alias.value(), fieldValue);
+            }
+        }
+        return wrapperMap;
+    }
+}
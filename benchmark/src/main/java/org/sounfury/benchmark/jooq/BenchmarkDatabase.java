@@ -0,0 +1,156 @@
+package org.sounfury.benchmark.jooq;
+
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.SQLDialect;
+import org.jooq.TableRecord;
+import org.jooq.impl.CallbackExecuteListener;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.sounfury.blog.jooq.tables.records.ArticleRecord;
+import org.sounfury.blog.jooq.tables.records.ArticleTagRecord;
+import org.sounfury.blog.jooq.tables.records.CategoryRecord;
+import org.sounfury.blog.jooq.tables.records.TagRecord;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.sounfury.blog.jooq.Blog.BLOG;
+import static org.sounfury.blog.jooq.Tables.ARTICLE;
+import static org.sounfury.blog.jooq.Tables.ARTICLE_TAG;
+import static org.sounfury.blog.jooq.Tables.CATEGORY;
+import static org.sounfury.blog.jooq.Tables.TAG;
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+
+/**
+ * 基准测试用的 H2 内存库（MySQL 兼容模式），表结构由生成的 jOOQ 元数据建立，仓储类直接使用 {@link #configuration()}
+ * 每条语句执行前暂停 roundTripMicros，模拟应用与数据库之间的一次网络往返；{@link #statements()} 为执行过的语句数
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final Connection connection;
+    private final Configuration configuration;
+    private final LongAdder statements = new LongAdder();
+
+    private BenchmarkDatabase(Connection connection, long roundTripMicros) {
+        this.connection = connection;
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        this.configuration = new DefaultConfiguration()
+                .set(connection)
+                .set(SQLDialect.H2)
+                .set(new DefaultExecuteListenerProvider(new CallbackExecuteListener()
+                        .onExecuteStart(ctx -> {
+                            statements.increment();
+                            if (roundTripNanos > 0) {
+                                LockSupport.parkNanos(roundTripNanos);
+                            }
+                        })));
+    }
+
+    /**
+     * 建立空库，name 不同的库互不影响
+     */
+    public static BenchmarkDatabase open(String name, long roundTripMicros) throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        DSLContext ddl = DSL.using(connection, SQLDialect.H2);
+        for (Query query : ddl.ddl(BLOG)
+                .queries()) {
+            query.execute();
+        }
+        return new BenchmarkDatabase(connection, roundTripMicros);
+    }
+
+    /**
+     * 写入已发布文章：categories 个分类、tags 个标签，每篇文章关联 tagsPerArticle 个标签，
+     * 文章id从 1 开始按创建时间递增，每篇间隔一小时
+     */
+    public void seed(int articles, int categories, int tags, int tagsPerArticle) {
+        DSLContext dsl = DSL.using(connection, SQLDialect.H2);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        List<TableRecord<?>> records = new ArrayList<>();
+        for (int i = 1; i <= categories; i++) {
+            CategoryRecord category = dsl.newRecord(CATEGORY);
+            category.set(CATEGORY.NAME, "分类" + i);
+            category.set(CATEGORY.ENABLE_STATUS, STATUS_ENABLE);
+            category.set(CATEGORY.DEL_FLAG, NOT_DEL_FLAG);
+            category.set(CATEGORY.ORDER, i);
+            records.add(category);
+        }
+        for (int i = 1; i <= tags; i++) {
+            TagRecord tag = dsl.newRecord(TAG);
+            tag.set(TAG.NAME, "标签" + i);
+            tag.set(TAG.DEL_FLAG, NOT_DEL_FLAG);
+            records.add(tag);
+        }
+        insert(dsl, records);
+
+        for (int i = 1; i <= articles; i++) {
+            ArticleRecord article = dsl.newRecord(ARTICLE);
+            article.set(ARTICLE.TITLE, "文章标题 " + i);
+            article.set(ARTICLE.SUMMARY, "这是一段用于基准测试的文章摘要，长度与线上的摘要大致相当。");
+            article.set(ARTICLE.CATEGORY_ID, (long) (i % categories + 1));
+            article.set(ARTICLE.IS_TOP, (byte) 0);
+            article.set(ARTICLE.ENABLE_STATUS, STATUS_ENABLE);
+            article.set(ARTICLE.VIEW_COUNT, (long) i);
+            article.set(ARTICLE.IS_COMMENT, (byte) 1);
+            article.set(ARTICLE.CREATE_TIME, start.plusHours(i));
+            article.set(ARTICLE.UPDATE_TIME, start.plusHours(i));
+            article.set(ARTICLE.DEL_FLAG, NOT_DEL_FLAG);
+            records.add(article);
+            for (int t = 0; t < tagsPerArticle; t++) {
+                ArticleTagRecord articleTag = dsl.newRecord(ARTICLE_TAG);
+                articleTag.set(ARTICLE_TAG.ARTICLE_ID, (long) i);
+                articleTag.set(ARTICLE_TAG.TAG_ID, (long) ((i + t) % tags + 1));
+                articleTag.set(ARTICLE_TAG.CREATE_TIME, start.plusHours(i));
+                articleTag.set(ARTICLE_TAG.DEL_FLAG, NOT_DEL_FLAG);
+                records.add(articleTag);
+            }
+            if (records.size() >= INSERT_BATCH_SIZE) {
+                insert(dsl, records);
+            }
+        }
+        insert(dsl, records);
+    }
+
+    private static void insert(DSLContext dsl, List<TableRecord<?>> records) {
+        if (!records.isEmpty()) {
+            dsl.batchInsert(records)
+                    .execute();
+            records.clear();
+        }
+    }
+
+    public Configuration configuration() {
+        return configuration;
+    }
+
+    public DSLContext dsl() {
+        return configuration.dsl();
+    }
+
+    public long statements() {
+        return statements.sum();
+    }
+
+    public void resetStatements() {
+        statements.reset();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,128 @@
+package org.sounfury.benchmark.portal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sounfury.benchmark.jooq.BenchmarkDatabase;
+import org.sounfury.blog.jooq.tables.pojos.Category;
+import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.dto.rep.ArticleCategoryDto;
+import org.sounfury.portal.dto.rep.PageArticleRep;
+import org.sounfury.portal.dto.rep.TagPortalDto;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.portal.repository.CategoryPortalRepository;
+import org.sounfury.portal.repository.TagPortalRepository;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 分页文章列表填充标签和分类（getPageTagsAndCategory）：整页批量查询 vs 原先每篇文章各查一次标签和分类
+ * 使用 H2 内存库和门户仓储类的真实查询，每条语句加上模拟的数据库往返；SampleTime 模式输出 p99 等分位延迟，
+ * 每页执行的语句数在启动时打印（批量为 2 条，逐行为 2 × pageSize 条）。
+ * 运行：java -jar benchmark/target/benchmarks.jar ArticleHydrationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleHydrationBenchmark {
+
+    /**
+     * 每页文章数
+     */
+    @Param({"10", "20", "50"})
+    private int pageSize;
+
+    /**
+     * 每条语句模拟的数据库往返（微秒），0 表示只比较数据库本身的开销
+     */
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private BenchmarkDatabase database;
+    private TagPortalRepository tagRepository;
+    private CategoryPortalRepository categoryRepository;
+    private List<PageArticleRep> page;
+
+    @Setup
+    public void setup() throws SQLException {
+        database = BenchmarkDatabase.open("hydration", roundTripMicros);
+        database.seed(1000, 20, 100, 3);
+        tagRepository = new TagPortalRepository(database.configuration());
+        categoryRepository = new CategoryPortalRepository(database.configuration());
+        page = new ArticlePortalRepository(database.configuration())
+                .pageQueryArticle(new PageReqDto(1, pageSize))
+                .getData();
+
+        database.resetStatements();
+        perRow();
+        long perRowStatements = database.statements();
+        database.resetStatements();
+        batched();
+        System.out.printf("%n每页 %d 篇：逐行填充 %d 条语句，批量填充 %d 条语句%n",
+                pageSize, perRowStatements, database.statements());
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    /**
+     * 当前做法：整页文章一次关联查询标签，一次 IN 查询分类
+     */
+    @Benchmark
+    public List<PageArticleRep> batched() {
+        List<Long> articleIds = page.stream()
+                .map(PageArticleRep::getId)
+                .toList();
+        Set<Long> categoryIds = page.stream()
+                .map(PageArticleRep::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, List<TagPortalDto>> tagMap = tagRepository.fetchTagsByArticleIds(articleIds);
+        Map<Long, ArticleCategoryDto> categoryMap = categoryRepository.fetchCategoryDictByIds(categoryIds);
+
+        page.forEach(pageArticleRep -> {
+            pageArticleRep.setTags(tagMap.getOrDefault(pageArticleRep.getId(), Collections.emptyList()));
+            pageArticleRep.setCategory(categoryMap.get(pageArticleRep.getCategoryId()));
+        });
+        return page;
+    }
+
+    /**
+     * 原做法：每篇文章查一次分类、一次标签
+     */
+    @Benchmark
+    public List<PageArticleRep> perRow() {
+        page.forEach(pageArticleRep -> {
+            Category category = categoryRepository.fetchOneById(pageArticleRep.getCategoryId());
+            List<TagPortalDto> tagPortalDtoList = tagRepository.fetchByArticleId(pageArticleRep.getId())
+                    .stream()
+                    .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
+                    .toList();
+            pageArticleRep.setTags(tagPortalDtoList);
+            pageArticleRep.setCategory(new ArticleCategoryDto(category.getId(), category.getName()));
+        });
+        return page;
+    }
+}
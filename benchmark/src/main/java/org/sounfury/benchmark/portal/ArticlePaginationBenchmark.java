@@ -0,0 +1,111 @@
+package org.sounfury.benchmark.portal;
+
+import org.jooq.Record2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sounfury.benchmark.jooq.BenchmarkDatabase;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
+import org.sounfury.jooq.page.PageRepDto;
+import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.jooq.page.utils.JooqPageHelper;
+import org.sounfury.portal.dto.rep.PageArticleRep;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.sounfury.blog.jooq.Tables.ARTICLE;
+
+/**
+ * 文章列表翻到第 page 页：OFFSET 分页（pageQueryArticle）vs 游标分页（{@link JooqPageHelper#getCursorPage}，cursorQueryArticle）
+ * 按 create_time 倒序，每页 10 篇；游标分页直接从上一页最后一条之后 seek，与线上逐页翻到该页时的游标相同。
+ * OFFSET 分页的总数走缓存，预热后只比较取数据的查询。indexed 为 true 时在 (create_time, id) 上建索引，
+ * 当前建表语句中没有该索引，两组结果分别对应现状和加索引之后。
+ * 运行：java -jar benchmark/target/benchmarks.jar ArticlePaginationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticlePaginationBenchmark {
+    private static final int ARTICLES = 20_000;
+    private static final int PAGE_SIZE = 10;
+    private static final String SORT_BY = "create_time desc";
+
+    /**
+     * 页码
+     */
+    @Param({"1", "500"})
+    private int page;
+
+    /**
+     * 是否在 (create_time, id) 上建索引
+     */
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private BenchmarkDatabase database;
+    private ArticlePortalRepository articleRepository;
+    private String cursor;
+
+    @Setup
+    public void setup() throws SQLException {
+        database = BenchmarkDatabase.open("pagination", 0);
+        database.seed(ARTICLES, 20, 100, 3);
+        if (indexed) {
+            database.dsl()
+                    .createIndex("idx_article_create_time")
+                    .on(ARTICLE, ARTICLE.CREATE_TIME, ARTICLE.ID)
+                    .execute();
+        }
+        articleRepository = new ArticlePortalRepository(database.configuration());
+
+        //第 page 页的游标：上一页最后一条文章的 (create_time, id)
+        if (page > 1) {
+            Record2<LocalDateTime, Long> boundary = database.dsl()
+                    .select(ARTICLE.CREATE_TIME, ARTICLE.ID)
+                    .from(ARTICLE)
+                    .orderBy(ARTICLE.CREATE_TIME.desc(), ARTICLE.ID.desc())
+                    .limit(1)
+                    .offset((page - 1) * PAGE_SIZE - 1)
+                    .fetchOne();
+            cursor = JooqPageHelper.forwardCursor(boundary, ARTICLE.CREATE_TIME, ARTICLE.ID);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<PageArticleRep> offset() {
+        PageReqDto request = new PageReqDto(page, PAGE_SIZE);
+        request.setSortBy(SORT_BY);
+        PageRepDto<List<PageArticleRep>> result = articleRepository.pageQueryArticle(request);
+        return result.getData();
+    }
+
+    @Benchmark
+    public List<PageArticleRep> cursor() {
+        CursorPageReqDto request = new CursorPageReqDto(PAGE_SIZE, cursor);
+        request.setSortBy(SORT_BY);
+        CursorPageRepDto<List<PageArticleRep>> result = articleRepository.cursorQueryArticle(request);
+        return result.getData();
+    }
+}
@@ -0,0 +1,161 @@
+package org.sounfury.benchmark.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sounfury.core.convention.result.Result;
+import org.sounfury.core.convention.result.Results;
+import org.sounfury.web.conditional.ConditionalGet;
+import org.sounfury.web.conditional.ConditionalGetInterceptor;
+import org.sounfury.web.conditional.ContentVersion;
+import org.sounfury.web.conditional.ResponseBodyCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章分页接口每秒可处理的请求数：预序列化响应体缓存命中 vs 每次调用控制器并序列化
+ * 两条路径都经过 {@link ConditionalGetInterceptor}，版本固定不变，只比较响应体的生成和写出；
+ * 不含网络、Servlet 容器和数据库，结果用于两条路径之间的对比，不代表线上绝对吞吐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ConditionalGetBenchmark {
+    private static final String PATH = "/article/page";
+    private static final String TAG = "1a2b3c-7-3-19";
+
+    /**
+     * 每页文章数
+     */
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ConditionalGetInterceptor interceptor;
+    private ObjectMapper objectMapper;
+    private HandlerMethod cachedHandler;
+    private HandlerMethod serializedHandler;
+    private PageController controller;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ResponseBodyCache responseBodyCache = new ResponseBodyCache();
+        ReflectionTestUtils.setField(responseBodyCache, "maxEntries", 512);
+        ReflectionTestUtils.setField(responseBodyCache, "maxBodySize", 1024 * 1024);
+        interceptor = new ConditionalGetInterceptor(resources -> new ContentVersion(TAG, -1), event -> {
+        }, responseBodyCache);
+
+        controller = new PageController(cards(pageSize));
+        cachedHandler = new HandlerMethod(controller, "cached");
+        serializedHandler = new HandlerMethod(controller, "serialized");
+
+        //缓存命中路径预先放入与版本一致的响应体，等同于首次请求后由 ResponseBodyCachingAdvice 写入
+        responseBodyCache.put(ResponseBodyCache.key(request(false)), TAG,
+                objectMapper.writeValueAsBytes(controller.cached()));
+    }
+
+    /**
+     * 缓存命中：拦截器直接写出缓存的 JSON 字节
+     */
+    @Benchmark
+    public int cachedBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request(false), response, cachedHandler);
+        return response.getContentLength();
+    }
+
+    /**
+     * 缓存命中：客户端接受 gzip，写出预先压缩的字节
+     */
+    @Benchmark
+    public int cachedBodyGzip() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request(true), response, cachedHandler);
+        return response.getContentLength();
+    }
+
+    /**
+     * 原路径：拦截器放行后调用控制器，再由 ObjectMapper 序列化写出
+     */
+    @Benchmark
+    public int serialized() throws Exception {
+        MockHttpServletRequest request = request(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (interceptor.preHandle(request, response, serializedHandler)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), controller.serialized());
+        }
+        return response.getContentAsByteArray().length;
+    }
+
+    private MockHttpServletRequest request(boolean gzip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.setParameter("pageNum", "1");
+        request.setParameter("pageSize", String.valueOf(pageSize));
+        if (gzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        }
+        return request;
+    }
+
+    private static List<Card> cards(int size) {
+        List<Card> cards = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            cards.add(new Card((long) i, "文章标题 " + i,
+                    "这是一段用于基准测试的文章摘要，长度与线上的摘要大致相当。".repeat(3),
+                    "https://example.com/thumbnail/" + i + ".webp", "分类" + (i % 5),
+                    List.of("Java", "Spring", "标签" + (i % 7)), 1000L + i, 12L, now.plusDays(i)));
+        }
+        return List.copyOf(cards);
+    }
+
+    /**
+     * 与门户文章卡片字段相当的响应元素
+     */
+    public record Card(Long id, String title, String summary, String thumbnail, String categoryName,
+                       List<String> tags, Long viewCount, Long commentCount, LocalDateTime createTime) {
+    }
+
+    public static class PageController {
+        private final List<Card> cards;
+
+        PageController(List<Card> cards) {
+            this.cards = cards;
+        }
+
+        @ConditionalGet(value = {"articles", "category", "article-stats"}, cacheBody = true)
+        public Result<List<Card>> cached() {
+            return Results.success(cards);
+        }
+
+        @ConditionalGet({"articles", "category", "article-stats"})
+        public Result<List<Card>> serialized() {
+            return Results.success(cards);
+        }
+    }
+}
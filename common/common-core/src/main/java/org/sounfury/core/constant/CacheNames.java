@@ -7,9 +7,14 @@ public interface CacheNames {
     String SYS_CONFIG = "sys_config";
 
     /**
-     * 主题配置
+     * 主题配置，启用进程内二级缓存
      */
-    String SYS_THEME = "sys_theme";
+    String SYS_THEME = "sys_theme#0#0#0#10m#256";
+
+    /**
+     * 站长信息，启用进程内二级缓存
+     */
+    String SITE_CREATOR_INFO = "siteCreatorInfoCache#0#0#0#10m#8";
 
     /**
      * 网站信息
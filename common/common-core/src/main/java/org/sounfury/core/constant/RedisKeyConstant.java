@@ -4,4 +4,72 @@ public interface RedisKeyConstant {
     String SITE_INFO = "site_info";
     String SITE_CREATOR_INFO="site_creator_info";
     String SITE_SETTINGS_VERSION = "site_settings_version";
+    /**
+     * 每日独立访客 HyperLogLog，后接 yyyyMMdd
+     */
+    String SITE_UV = "site_uv:";
+    /**
+     * 文章卡片投影（带过期时间的 map cache），field 为文章id
+     */
+    String ARTICLE_CARD = "article_card_cache";
+    /**
+     * 文章详情缓存，field 为文章id，正文 gzip 压缩
+     */
+    String ARTICLE_DETAIL = "article_detail";
+    /**
+     * 文章搜索索引变更通知 topic，消息为文章id
+     */
+    String ARTICLE_SEARCH_TOPIC = "article_search_refresh";
+    /**
+     * 文章归档统计增量通知 topic，消息为 序号@yyyy-MM:delta
+     */
+    String ARCHIVE_STATS_TOPIC = "archive_stats_delta";
+    /**
+     * 文章归档统计增量序号，每次发布增量时递增
+     */
+    String ARCHIVE_STATS_SEQUENCE = "archive_stats_sequence";
+    /**
+     * 文章评论数 hash，field 为文章id
+     */
+    String ARTICLE_COMMENT_COUNT = "article_comment_count";
+    /**
+     * 标签统计增量通知 topic，消息为 序号@tagId:delta,tagId:delta，出现新标签时为 reload
+     */
+    String TAG_STATS_TOPIC = "tag_stats_delta";
+    /**
+     * 标签统计增量序号，每次发布增量时递增
+     */
+    String TAG_STATS_SEQUENCE = "tag_stats_sequence";
+    /**
+     * 分类树快照失效通知 topic
+     */
+    String CATEGORY_TREE_TOPIC = "category_tree_refresh";
+    /**
+     * 门户内容版本 hash，field 为资源名，用于条件 GET
+     */
+    String CONTENT_VERSION = "content_version";
+    /**
+     * 二级缓存失效通知 topic
+     */
+    String CACHE_INVALIDATION_TOPIC = "cache_near_invalidation";
+    /**
+     * 文章每小时阅读量 sorted set，后接距纪元的小时数，member 为文章id
+     */
+    String ARTICLE_TRENDING_BUCKET = "article_trending:bucket:";
+    /**
+     * 热门文章排行 sorted set，后接统计窗口，score 为衰减后的阅读量
+     */
+    String ARTICLE_TRENDING_RANK = "article_trending:rank:";
+    /**
+     * 相关文章索引变更通知 topic，消息为文章id
+     */
+    String RELATED_ARTICLE_TOPIC = "article_related_refresh";
+    /**
+     * AI 角色advisor失效通知 topic，消息为角色id
+     */
+    String AKI_CHARACTER_TOPIC = "aki_character_refresh";
+    /**
+     * AI 提示词更新通知 topic，消息为提示词 categoryKey
+     */
+    String AKI_PROMPT_TOPIC = "aki_prompt_refresh";
 }
@@ -0,0 +1,29 @@
+package org.sounfury.jooq.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CursorPageRepDto<T> {
+  private T data;
+
+  /**
+   * 下一页游标，没有下一页时为空
+   */
+  private String nextCursor;
+
+  /**
+   * 上一页游标，没有上一页时为空
+   */
+  private String prevCursor;
+
+  private boolean hasNext;
+
+  private boolean hasPrev;
+
+  /**
+   * 总数，未要求 withTotal 时为空
+   */
+  private Long total;
+}
@@ -0,0 +1,32 @@
+package org.sounfury.jooq.page;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * 游标（keyset）分页请求
+ *   size: 10,
+ *   sortBy: "create_time desc",
+ *   cursor: 上一次返回的 nextCursor / prevCursor，为空表示第一页
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@NoArgsConstructor
+public class CursorPageReqDto extends PageReqDto {
+
+  /**
+   * 不透明游标
+   */
+  private String cursor;
+
+  /**
+   * 是否需要总数，默认不执行 count
+   */
+  private boolean withTotal;
+
+  public CursorPageReqDto(int size, String cursor) {
+    super(1, size);
+    this.cursor = cursor;
+  }
+}
@@ -8,6 +8,11 @@ public class PageRepDto<T> {
   private long total;
   private T data;
 
+  /**
+   * 是否还有下一页，未计算时为空
+   */
+  private Boolean hasNext;
+
   public PageRepDto(long total, @Nullable T data) {
     if (total < 0) {
       throw new IllegalArgumentException("total must not be less than zero");
@@ -16,6 +21,11 @@ public class PageRepDto<T> {
     this.data = data;
   }
 
+  public PageRepDto(long total, @Nullable T data, @Nullable Boolean hasNext) {
+    this(total, data);
+    this.hasNext = hasNext;
+  }
+
   public static <T> PageRepDto<T> empty() {
     return new PageRepDto<>(0, null);
   }
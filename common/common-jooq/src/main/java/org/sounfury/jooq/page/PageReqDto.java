@@ -10,6 +10,7 @@ import org.sounfury.core.convention.exception.ClientException;
 import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -41,6 +42,11 @@ public class PageReqDto {
 
   private Map<String, Direction> sortBy = new HashMap<>();
 
+  /**
+   * 总数计算方式，为空时按 EXACT 处理
+   */
+  private CountMode countMode;
+
   public PageReqDto(int page, int size) {
     checkPageAndSize(page, size);
     this.page = page;
@@ -76,6 +82,30 @@ public class PageReqDto {
     }
   }
 
+  /**
+   * 总数计算方式
+   */
+  public enum CountMode {
+    /** 每次执行 count */
+    EXACT,
+    /** 使用缓存的总数，过期或失效后重新 count */
+    CACHED,
+    /** 估算总数：有缓存即使用（即使已过期），无缓存时 count 一次 */
+    ESTIMATED,
+    /** 不执行 count，多取一条只返回是否有下一页 */
+    NONE
+  }
+
+  /**
+   * 调用方未指定时使用给定的总数计算方式
+   */
+  public PageReqDto defaultCountMode(CountMode countMode) {
+    if (this.countMode == null) {
+      this.countMode = countMode;
+    }
+    return this;
+  }
+
   public static PageReqDto of(int page, int size) {
     return new PageReqDto(page, size);
   }
@@ -111,7 +141,8 @@ public class PageReqDto {
   }
 
   private Map<String, Direction> convertSortBy(String sortBy) {
-    Map<String, Direction> result = new HashMap<>();
+    // 保留传入顺序，多字段排序和游标分页都依赖字段顺序
+    Map<String, Direction> result = new LinkedHashMap<>();
     if (StringUtils.isEmpty(sortBy)) {
       return result;
     }
@@ -6,15 +6,39 @@ import org.jooq.impl.DSL;
 import org.jooq.types.UByte;
 import org.jooq.types.UInteger;
 import org.jooq.types.ULong;
+import org.sounfury.core.convention.exception.ClientException;
+import org.sounfury.core.utils.JsonUtils;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.sounfury.core.convention.errorcode.BaseErrorCode.USER_PAGE_SIZE_ERROR;
 
 public class JooqPageHelper {
 
+    /**
+     * 游标中标记向前翻页
+     */
+    private static final String CURSOR_BACKWARD = "p";
+
+    /**
+     * 游标中标记向后翻页
+     */
+    private static final String CURSOR_FORWARD = "n";
+
     // SelectConditionStep表示查询在添加了WHERE条件之后的阶段。这个接口允许你添加ORDER BY、LIMIT、OFFSET等子句。
 
 
@@ -35,24 +59,25 @@ public class JooqPageHelper {
         // 1. 将 `query` 转换为子查询
         Table<?> subQuery = query.asTable("subquery");
 
-        // 2. 使用子查询生成计数SQL
-        Long total = dsl.select(DSL.count())
-                .from(subQuery)
-                .fetchOne(0, Long.class);
+        // 2. 使用子查询生成计数SQL，按计数方式走缓存或跳过
+        SelectJoinStep<Record1<Integer>> countQuery = dsl.select(DSL.count())
+                .from(subQuery);
+        String countKey = countKey(countQuery, pageRequest, dsl);
+        Long total = resolveTotal(countKey, pageRequest, () -> countQuery.fetchOne(0, Long.class));
 
 
-        if(Objects.isNull(total) || total == 0) {
+        if(Objects.nonNull(total) && total == 0) {
             return PageRepDto.empty();
         }
 
         // 2. 添加排序和分页条件
         List<R> records = query
                 .orderBy(pageRequest.getSortFields())
-                .limit(pageRequest.getSize())
+                .limit(fetchSize(pageRequest))
                 .offset(pageRequest.getOffset())
                 .fetchInto((Class<R>) Record.class); // 修正：强制类型
 
-        return new PageRepDto<>(total, records);
+        return toPage(total, records, countKey, pageRequest);
     }
 
     /**
@@ -72,22 +97,23 @@ public class JooqPageHelper {
             DSLContext dsl,
             Class<T> targetClass) {
         Table<?> subquery = query.asTable("subquery");
-        Long total = dsl.select(DSL.count())
-                .from(subquery)
-                .fetchOne(0, Long.class);
-        if(Objects.isNull(total) || total == 0) {
+        SelectJoinStep<Record1<Integer>> countQuery = dsl.select(DSL.count())
+                .from(subquery);
+        String countKey = countKey(countQuery, pageRequest, dsl);
+        Long total = resolveTotal(countKey, pageRequest, () -> countQuery.fetchOne(0, Long.class));
+        if(Objects.nonNull(total) && total == 0) {
             return PageRepDto.empty();
         }
 
         // 2. 添加排序和分页条件，并自动转换为目标类型
         List<T> records = query
                 .orderBy(pageRequest.getSortFields())
-                .limit(pageRequest.getSize())
+                .limit(fetchSize(pageRequest))
                 .offset(pageRequest.getOffset())
                 .fetch()
                 .into(targetClass);
 
-        return new PageRepDto<>(total, records);
+        return toPage(total, records, countKey, pageRequest);
     }
 
 
@@ -112,27 +138,58 @@ public class JooqPageHelper {
         // 1. 将 `query` 转换为子查询
         TableLike<?> subQuery = query.asTable("subquery");
 
-        // 2. 使用子查询生成计数SQL
-        Long total = dsl.select(DSL.count())
-                .from(subQuery)
-                .fetchOne(0, Long.class);
-        if(Objects.isNull(total) || total == 0) {
+        // 2. 使用子查询生成计数SQL，按计数方式走缓存或跳过
+        SelectJoinStep<Record1<Integer>> countQuery = dsl.select(DSL.count())
+                .from(subQuery);
+        String countKey = countKey(countQuery, pageRequest, dsl);
+        Long total = resolveTotal(countKey, pageRequest, () -> countQuery.fetchOne(0, Long.class));
+        if(Objects.nonNull(total) && total == 0) {
             return PageRepDto.empty();
         }
 
         // 2. 添加排序和分页条件
         List<T> records = query
                 .orderBy(pageRequest.getSortFields())
-                .limit(pageRequest.getSize())
+                .limit(fetchSize(pageRequest))
                 .offset(pageRequest.getOffset())
                 .fetch()
                 .map(mapper);
 
-        return new PageRepDto<>(total, records);
+        return toPage(total, records, countKey, pageRequest);
     }
 
 
 
+    /**
+     * 总数已知时执行分页查询（返回指定类型），不再执行 count
+     *
+     * @param query 原始查询
+     * @param pageRequest 分页请求参数
+     * @param total 调用方维护的总数
+     * @param mapper 结果映射函数
+     * @param <R> 结果记录类型
+     * @param <T> 目标类型
+     * @return 分页响应
+     */
+    public static <R extends Record, T> PageRepDto<List<T>> getPage(
+            SelectHavingStep<? extends R> query,
+            PageReqDto pageRequest,
+            long total,
+            RecordMapper<R, T> mapper) {
+        if (total <= 0) {
+            return PageRepDto.empty();
+        }
+
+        List<T> records = query
+                .orderBy(pageRequest.getSortFields())
+                .limit(pageRequest.getSize())
+                .offset(pageRequest.getOffset())
+                .fetch()
+                .map(mapper);
+
+        return new PageRepDto<>(total, records, pageRequest.getOffset() + records.size() < total);
+    }
+
     /**
      * 构建带计数的分页查询
      *
@@ -148,20 +205,21 @@ public class JooqPageHelper {
             PageReqDto pageRequest) {
 
         // 1. 获取总记录数
-        long total = countQuery.fetchOne(0, Long.class);
+        String countKey = countKey(countQuery, pageRequest, countQuery.configuration().dsl());
+        Long total = resolveTotal(countKey, pageRequest, () -> countQuery.fetchOne(0, Long.class));
 
-        if (total == 0) {
+        if (Objects.nonNull(total) && total == 0) {
             return PageRepDto.empty();
         }
 
         // 2. 添加排序和分页条件
         List<R> records = selectQuery
                 .orderBy(pageRequest.getSortFields())
-                .limit(pageRequest.getSize())
+                .limit(fetchSize(pageRequest))
                 .offset(pageRequest.getOffset())
                 .fetch();
 
-        return new PageRepDto<>(total, records);
+        return toPage(total, records, countKey, pageRequest);
     }
 
     /**
@@ -182,20 +240,255 @@ public class JooqPageHelper {
             RecordMapper<R, T> mapper) {
 
         // 1. 获取总记录数
-        long total = countQuery.fetchOne(0, Long.class);
+        String countKey = countKey(countQuery, pageRequest, countQuery.configuration().dsl());
+        Long total = resolveTotal(countKey, pageRequest, () -> countQuery.fetchOne(0, Long.class));
 
-        if (total == 0) {
+        if (Objects.nonNull(total) && total == 0) {
             return PageRepDto.empty();
         }
 
         // 2. 添加排序和分页条件
         List<T> records = selectQuery
                 .orderBy(pageRequest.getSortFields())
-                .limit(pageRequest.getSize())
+                .limit(fetchSize(pageRequest))
                 .offset(pageRequest.getOffset())
                 .fetch()
                 .map(mapper);
 
-        return new PageRepDto<>(total, records);
+        return toPage(total, records, countKey, pageRequest);
+    }
+
+    private static PageReqDto.CountMode countMode(PageReqDto pageRequest) {
+        return pageRequest.getCountMode() == null ? PageReqDto.CountMode.EXACT : pageRequest.getCountMode();
+    }
+
+    /**
+     * 总数缓存的 key：内联绑定参数后的计数 SQL，只有走缓存的计数方式才需要
+     */
+    private static String countKey(Select<?> countQuery, PageReqDto pageRequest, DSLContext dsl) {
+        PageReqDto.CountMode mode = countMode(pageRequest);
+        if (mode == PageReqDto.CountMode.CACHED || mode == PageReqDto.CountMode.ESTIMATED) {
+            return dsl.renderInlined(countQuery);
+        }
+        return null;
+    }
+
+    /**
+     * 按计数方式取总数，返回 null 表示不计数
+     */
+    private static Long resolveTotal(String countKey, PageReqDto pageRequest, Supplier<Long> counter) {
+        return switch (countMode(pageRequest)) {
+            case NONE -> null;
+            case CACHED -> PageCountCache.get(countKey, false, counter);
+            case ESTIMATED -> PageCountCache.get(countKey, true, counter);
+            default -> counter.get();
+        };
+    }
+
+    /**
+     * 不计数时多取一条用于判断是否有下一页
+     */
+    private static int fetchSize(PageReqDto pageRequest) {
+        return countMode(pageRequest) == PageReqDto.CountMode.NONE
+                ? pageRequest.getSize() + 1
+                : pageRequest.getSize();
+    }
+
+    private static <T> PageRepDto<List<T>> toPage(Long total, List<T> records, String countKey,
+                                                  PageReqDto pageRequest) {
+        int size = pageRequest.getSize();
+        long offset = pageRequest.getOffset();
+
+        // 不计数：total 只是已知的下界
+        if (total == null) {
+            boolean hasNext = records.size() > size;
+            List<T> data = hasNext ? new ArrayList<>(records.subList(0, size)) : records;
+            return new PageRepDto<>(offset + data.size() + (hasNext ? 1 : 0), data, hasNext);
+        }
+
+        // 缓存的总数遇到不满的最后一页时可以得到准确值，顺便修正缓存
+        if (countKey != null && records.size() < size && (!records.isEmpty() || offset == 0)) {
+            long actual = offset + records.size();
+            if (actual != total) {
+                total = actual;
+                PageCountCache.put(countKey, actual);
+            }
+        }
+        return new PageRepDto<>(total, records, offset + records.size() < total);
+    }
+
+    /**
+     * 游标（keyset）分页
+     * 按 请求中的排序字段 + 唯一字段 排序，用 seek 条件代替 OFFSET，深分页不再扫描丢弃前面的行；
+     * 默认不执行 count，需要总数时传 withTotal
+     *
+     * @param query 原始查询
+     * @param pageRequest 游标分页请求参数
+     * @param uniqueField 唯一字段（一般为主键），作为排序的最后一列保证顺序稳定
+     * @param dsl DSLContext实例
+     * @param mapper 结果映射函数
+     * @param <R> 结果记录类型
+     * @param <T> 目标类型
+     * @return 游标分页响应
+     */
+    public static <R extends Record, T> CursorPageRepDto<List<T>> getCursorPage(
+            SelectConditionStep<R> query,
+            CursorPageReqDto pageRequest,
+            Field<?> uniqueField,
+            DSLContext dsl,
+            RecordMapper<R, T> mapper) {
+
+        // 通过 setter 绑定的请求不经过构造器校验，size 不合法时游标无法推进
+        if (pageRequest.getSize() < 1) {
+            throw new ClientException(USER_PAGE_SIZE_ERROR);
+        }
+
+        // 1. 按需计数，必须在追加排序之前
+        Long total = null;
+        if (pageRequest.isWithTotal()) {
+            total = dsl.select(DSL.count())
+                    .from(query.asTable("subquery"))
+                    .fetchOne(0, Long.class);
+        }
+
+        // 2. 排序字段 + 唯一字段，唯一字段未指定方向时跟随最后一个排序字段
+        List<Field<?>> seekFields = new ArrayList<>();
+        List<SortOrder> orders = new ArrayList<>();
+        SortOrder lastOrder = SortOrder.DESC;
+        SortOrder uniqueOrder = null;
+        for (Map.Entry<String, PageReqDto.Direction> entry : pageRequest.getSortBy().entrySet()) {
+            SortOrder order = SortOrder.valueOf(entry.getValue().getKeyword());
+            if (entry.getKey().equals(uniqueField.getName())) {
+                uniqueOrder = order;
+                continue;
+            }
+            seekFields.add(resolveField(query, entry.getKey()));
+            orders.add(order);
+            lastOrder = order;
+        }
+        seekFields.add(uniqueField);
+        orders.add(uniqueOrder != null ? uniqueOrder : lastOrder);
+
+        // 3. 解析游标，向前翻页时反转排序方向
+        List<Object> cursorValues = decodeCursor(pageRequest.getCursor(), seekFields);
+        boolean backward = cursorValues != null && CURSOR_BACKWARD.equals(cursorValues.get(0));
+        List<SortField<?>> sortFields = new ArrayList<>();
+        for (int i = 0; i < seekFields.size(); i++) {
+            SortOrder order = orders.get(i);
+            if (backward) {
+                order = order == SortOrder.DESC ? SortOrder.ASC : SortOrder.DESC;
+            }
+            sortFields.add(seekFields.get(i).sort(order));
+        }
+
+        // 4. 多取一条判断是否还有更多
+        int size = pageRequest.getSize();
+        SelectSeekStepN<R> ordered = query.orderBy(sortFields);
+        Result<R> result;
+        if (cursorValues == null) {
+            result = ordered.limit(size + 1).fetch();
+        } else {
+            result = ordered.seek(cursorValues.subList(1, cursorValues.size()).toArray())
+                    .limit(size + 1)
+                    .fetch();
+        }
+
+        List<R> records = new ArrayList<>(result);
+        boolean more = records.size() > size;
+        if (more) {
+            records = new ArrayList<>(records.subList(0, size));
+        }
+        if (backward) {
+            Collections.reverse(records);
+        }
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : cursorValues != null;
+
+        String nextCursor = hasNext && !records.isEmpty()
+                ? encodeCursor(CURSOR_FORWARD, records.get(records.size() - 1), seekFields)
+                : null;
+        String prevCursor = hasPrev && !records.isEmpty()
+                ? encodeCursor(CURSOR_BACKWARD, records.get(0), seekFields)
+                : null;
+
+        List<T> data = new ArrayList<>(records.size());
+        for (R record : records) {
+            data.add(mapper.map(record));
+        }
+        return new CursorPageRepDto<>(data, nextCursor, prevCursor, hasNext, hasPrev, total);
+    }
+
+    /**
+     * 由边界记录生成向后翻页的游标
+     * 用于首屏数据不是由 getCursorPage 查出、之后要接着用游标翻页的场景；
+     * seekFields 须与 getCursorPage 使用的排序一致：排序字段在前，唯一字段在最后
+     */
+    public static String forwardCursor(Record record, Field<?>... seekFields) {
+        return encodeCursor(CURSOR_FORWARD, record, List.of(seekFields));
+    }
+
+    /**
+     * 优先使用查询列中的同名字段，保留字段类型用于游标值转换
+     */
+    private static Field<?> resolveField(Select<?> query, String name) {
+        for (Field<?> field : query.getSelect()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return DSL.field(DSL.name(name));
+    }
+
+    /**
+     * 游标 = base64url(json[方向, 排序字段值..., 唯一字段值])
+     */
+    private static String encodeCursor(String direction, Record record, List<Field<?>> seekFields) {
+        List<Object> values = new ArrayList<>(seekFields.size() + 1);
+        values.add(direction);
+        for (Field<?> field : seekFields) {
+            Object value = record.get(field);
+            values.add(value instanceof TemporalAccessor ? value.toString() : value);
+        }
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(JsonUtils.toJsonString(values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Object> decodeCursor(String cursor, List<Field<?>> seekFields) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        List<Object> values;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            values = JsonUtils.parseArray(json, Object.class);
+        } catch (Exception e) {
+            throw new ClientException("分页游标无效");
+        }
+        if (values == null || values.size() != seekFields.size() + 1) {
+            throw new ClientException("分页游标与排序字段不匹配");
+        }
+        List<Object> converted = new ArrayList<>(values.size());
+        converted.add(values.get(0));
+        try {
+            for (int i = 0; i < seekFields.size(); i++) {
+                converted.add(convertCursorValue(values.get(i + 1), seekFields.get(i)));
+            }
+        } catch (RuntimeException e) {
+            throw new ClientException("分页游标无效");
+        }
+        return converted;
+    }
+
+    private static Object convertCursorValue(Object value, Field<?> field) {
+        if (value instanceof String text) {
+            if (field.getType() == LocalDateTime.class) {
+                return LocalDateTime.parse(text);
+            }
+            if (field.getType() == LocalDate.class) {
+                return LocalDate.parse(text);
+            }
+        }
+        return value == null ? null : field.getDataType().convert(value);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package org.sounfury.jooq.page.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.Table;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 分页总数缓存
+ * key 为内联了绑定参数的计数 SQL，同一条件的分页请求共用一个总数；
+ * 进程内缓存，多节点之间依靠 TTL 兜底，本节点的写操作通过 {@link #evict(Table[])} 立即失效；
+ * 估算总数在过期后仍先返回旧值，同时在后台重新计数
+ */
+@Slf4j
+public class PageCountCache {
+
+    /**
+     * 总数缓存有效期
+     */
+    private static final long TTL_MILLIS = 60_000L;
+
+    /**
+     * 最多缓存的查询条件数，超出后先清理过期项，仍超出则整体清空
+     */
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 正在后台重新计数的条件
+     */
+    private static final Set<String> RECOUNTING = ConcurrentHashMap.newKeySet();
+
+    private PageCountCache() {
+    }
+
+    private record Entry(long total, long expireAt) {
+
+        boolean expired(long now) {
+            return now >= expireAt;
+        }
+    }
+
+    /**
+     * 读取缓存的总数，未命中时执行计数并写入缓存
+     *
+     * @param key 计数 SQL
+     * @param allowStale 是否接受已过期的值（估算总数）
+     * @param counter 实际计数
+     */
+    public static Long get(String key, boolean allowStale, Supplier<Long> counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = CACHE.get(key);
+        if (entry != null && !entry.expired(now)) {
+            return entry.total();
+        }
+        if (entry != null && allowStale) {
+            //先返回过期的值，后台重新计数，下次请求拿到新值
+            recountAsync(key, entry, counter);
+            return entry.total();
+        }
+        Long total = counter.get();
+        if (total != null) {
+            put(key, total);
+        }
+        return total;
+    }
+
+    /**
+     * 后台重新计数，同一条件同时只有一个；计数期间该条件被失效或重新写入时丢弃结果
+     */
+    private static void recountAsync(String key, Entry stale, Supplier<Long> counter) {
+        if (!RECOUNTING.add(key)) {
+            return;
+        }
+        Thread.ofVirtual()
+                .name("page-count-recount")
+                .start(() -> {
+                    try {
+                        Long total = counter.get();
+                        if (total != null) {
+                            CACHE.replace(key, stale, new Entry(total, System.currentTimeMillis() + TTL_MILLIS));
+                        }
+                    } catch (Exception e) {
+                        log.warn("分页总数后台计数失败：{}", key, e);
+                    } finally {
+                        RECOUNTING.remove(key);
+                    }
+                });
+    }
+
+    /**
+     * 写入或修正总数
+     */
+    public static void put(String key, long total) {
+        long now = System.currentTimeMillis();
+        if (CACHE.size() >= MAX_ENTRIES) {
+            CACHE.values().removeIf(entry -> entry.expired(now));
+            if (CACHE.size() >= MAX_ENTRIES) {
+                CACHE.clear();
+            }
+        }
+        CACHE.put(key, new Entry(total, now + TTL_MILLIS));
+    }
+
+    /**
+     * 失效所有涉及这些表的总数
+     */
+    public static void evict(Table<?>... tables) {
+        for (Table<?> table : tables) {
+            Pattern pattern = Pattern.compile("\\b" + Pattern.quote(table.getName()) + "\\b",
+                    Pattern.CASE_INSENSITIVE);
+            CACHE.keySet().removeIf(key -> pattern.matcher(key).find());
+        }
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+}
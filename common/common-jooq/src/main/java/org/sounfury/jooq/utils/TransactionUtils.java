@@ -0,0 +1,49 @@
+package org.sounfury.jooq.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具
+ */
+public class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * 当前有事务时在提交后执行，回滚则不执行；没有事务时立即执行
+     * 用于刷新缓存、索引等事务外的副作用，避免读到或写入未提交的数据
+     */
+    public static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 与 {@link #afterCommit(Runnable)} 相同，但在本事务所有 afterCommit 任务执行完之后才执行，与注册顺序无关
+     * 用于递增内容版本等必须晚于缓存失效、重建的操作
+     */
+    public static void afterCommitLast(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        task.run();
+                    }
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
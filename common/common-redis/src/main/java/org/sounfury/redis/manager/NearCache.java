@@ -0,0 +1,226 @@
+package org.sounfury.redis.manager;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存：进程内 L1 + Redis L2
+ * 读先查 L1，未命中再读 L2 并回填；写和删除先作用于 L2，再丢弃本地 L1 并广播失效，其他节点收到后丢弃各自的 L1。
+ * L1 直接返回缓存的对象实例，调用方不能修改取到的值
+ */
+public class NearCache implements Cache {
+
+    private final Cache remote;
+    private final long localTtlMillis;
+    private final int localMaxSize;
+    private final Consumer<NearCacheInvalidation> invalidationPublisher;
+
+    private final Map<Object, Entry> local = new ConcurrentHashMap<>();
+
+    /**
+     * 每次失效加一，读 L2 期间发生过失效的结果不回填 L1，避免把旧值写回
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private record Entry(ValueWrapper value, long expireAt) {
+
+        boolean expired(long now) {
+            return now >= expireAt;
+        }
+    }
+
+    /**
+     * 缓存命中统计，remote 只统计 L1 未命中后对 L2 的访问
+     */
+    public record Stats(String name, int localSize, long localHits, long localMisses, double localHitRatio,
+                        long remoteHits, long remoteMisses, double remoteHitRatio) {
+    }
+
+    public NearCache(Cache remote, long localTtlMillis, int localMaxSize,
+                     Consumer<NearCacheInvalidation> invalidationPublisher) {
+        this.remote = remote;
+        this.localTtlMillis = localTtlMillis;
+        this.localMaxSize = localMaxSize;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    /**
+     * 返回 L2 的原生缓存，按 RMap 整体读取的逻辑不受影响
+     */
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = local.get(key);
+        if (entry != null && !entry.expired(System.currentTimeMillis())) {
+            localHits.increment();
+            return entry.value();
+        }
+        localMisses.increment();
+
+        long version = invalidationVersion.get();
+        ValueWrapper value = remote.get(key);
+        if (value == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        putLocal(key, value, version);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null || value.get() == null) {
+            return null;
+        }
+        if (type != null && !type.isInstance(value.get())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: "
+                    + value.get());
+        }
+        return (T) value.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        long version = invalidationVersion.get();
+        T loaded = remote.get(key, valueLoader);
+        //L2 返回的就是写入后的值，直接包装回填，不再多读一次 L2；空值是否缓存由 L2 决定，不回填
+        if (loaded != null) {
+            putLocal(key, new SimpleValueWrapper(loaded), version);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateLocal(key);
+        publish(key, false);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper previous = remote.putIfAbsent(key, value);
+        if (previous == null) {
+            invalidateLocal(key);
+            publish(key, false);
+        }
+        return previous;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(key);
+        publish(key, false);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publish(null, true);
+    }
+
+    /**
+     * 处理其他节点广播的失效消息
+     */
+    void onInvalidation(NearCacheInvalidation invalidation) {
+        if (invalidation.isClear()) {
+            clearLocal();
+        } else {
+            invalidateLocal(invalidation.getKey());
+        }
+    }
+
+    public Stats stats() {
+        long localHit = localHits.sum();
+        long localMiss = localMisses.sum();
+        long remoteHit = remoteHits.sum();
+        long remoteMiss = remoteMisses.sum();
+        return new Stats(getName(), local.size(), localHit, localMiss, ratio(localHit, localMiss), remoteHit,
+                remoteMiss, ratio(remoteHit, remoteMiss));
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private void invalidateLocal(Object key) {
+        invalidationVersion.incrementAndGet();
+        local.remove(key);
+    }
+
+    private void clearLocal() {
+        invalidationVersion.incrementAndGet();
+        local.clear();
+    }
+
+    private void publish(Object key, boolean clear) {
+        invalidationPublisher.accept(new NearCacheInvalidation(null, getName(), key, clear));
+    }
+
+    private void putLocal(Object key, ValueWrapper value, long version) {
+        long now = System.currentTimeMillis();
+        if (local.size() >= localMaxSize) {
+            local.values()
+                    .removeIf(entry -> entry.expired(now));
+            if (local.size() >= localMaxSize) {
+                evictEarliest();
+            }
+        }
+        //版本检查和写入在同一个 key 的 compute 内完成，与 invalidateLocal 的 remove 互斥：
+        //失效先递增版本再 remove，compute 要么在 remove 之前写入随后被删掉，要么看到新版本不写入
+        Entry fresh = new Entry(value, now + localTtlMillis);
+        local.compute(key, (k, current) -> invalidationVersion.get() == version ? fresh : current);
+    }
+
+    private void evictEarliest() {
+        Object earliestKey = null;
+        long earliest = Long.MAX_VALUE;
+        Iterator<Map.Entry<Object, Entry>> iterator = local.entrySet()
+                .iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Object, Entry> entry = iterator.next();
+            if (entry.getValue()
+                    .expireAt() < earliest) {
+                earliest = entry.getValue()
+                        .expireAt();
+                earliestKey = entry.getKey();
+            }
+        }
+        if (earliestKey != null) {
+            local.remove(earliestKey);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.sounfury.redis.manager;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 二级缓存失效消息，clear 为 true 时清空整个缓存的 L1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearCacheInvalidation {
+
+    /**
+     * 发送节点，节点忽略自己发出的消息
+     */
+    private String origin;
+
+    private String cacheName;
+
+    private Object key;
+
+    private boolean clear;
+}
@@ -13,14 +13,21 @@ import org.springframework.util.StringUtils;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.sounfury.core.constant.RedisKeyConstant.CACHE_INVALIDATION_TOPIC;
 
 /**
  *重写RedissonSpringCacheManager，支持多参数cacheName
  * 1.支持TTL、最大空闲时间和最大大小
  * 2，提供可选的事务感知（transactionAware）功能
+ * 3.支持进程内二级缓存：name#ttl#maxIdle#maxSize#localTtl#localMaxSize，localTtl 大于 0 时启用，
+ *   例如 sys_theme#0#0#0#10m#256，各节点通过 Redis topic 互相失效
  * A {@link org.springframework.cache.CacheManager} implementation
  */
 @SuppressWarnings("unchecked")
@@ -30,8 +37,21 @@ public class PlusSpringCacheManager implements CacheManager {
     private boolean allowNullValues = true;
     private boolean transactionAware = true;
 
+    /**
+     * 未指定 localMaxSize 时 L1 的最大条数
+     */
+    private static final int DEFAULT_LOCAL_MAX_SIZE = 1000;
+
     private Map<String, CacheConfig> configMap = new ConcurrentHashMap<>();
     private ConcurrentMap<String, Cache> instanceMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点标识，用于忽略自己广播的失效消息
+     */
+    private final String nodeId = UUID.randomUUID()
+            .toString();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
 
     public PlusSpringCacheManager() {
     }
@@ -93,16 +113,28 @@ public class PlusSpringCacheManager implements CacheManager {
         if (array.length > 3) {
             config.setMaxSize(Integer.parseInt(array[3]));
         }
+        long localTtl = array.length > 4 ? DurationStyle.detectAndParse(array[4]).toMillis() : 0;
+        int localMaxSize = array.length > 5 ? Integer.parseInt(array[5]) : DEFAULT_LOCAL_MAX_SIZE;
 
         return config.getMaxIdleTime() == 0 && config.getTTL() == 0 && config.getMaxSize() == 0
-                ? createMap(name, config)
-                : createMapCache(name, config);
+                ? createMap(name, config, localTtl, localMaxSize)
+                : createMapCache(name, config, localTtl, localMaxSize);
     }
 
-    private Cache createMap(String name, CacheConfig config) {
+    /**
+     * 各二级缓存的命中统计
+     */
+    public List<NearCache.Stats> getNearCacheStats() {
+        return nearCacheMap.values()
+                .stream()
+                .map(NearCache::stats)
+                .toList();
+    }
+
+    private Cache createMap(String name, CacheConfig config, long localTtl, int localMaxSize) {
         RMap<Object, Object> map = RedisUtils.getClient().getMap(name);
 
-        Cache cache = new RedissonCache(map, allowNullValues);
+        Cache cache = wrapNearCache(new RedissonCache(map, allowNullValues), localTtl, localMaxSize);
         if (transactionAware) {
             cache = new TransactionAwareCacheDecorator(cache);
         }
@@ -111,10 +143,10 @@ public class PlusSpringCacheManager implements CacheManager {
         return oldCache != null ? oldCache : cache;
     }
 
-    private Cache createMapCache(String name, CacheConfig config) {
+    private Cache createMapCache(String name, CacheConfig config, long localTtl, int localMaxSize) {
         RMapCache<Object, Object> map = RedisUtils.getClient().getMapCache(name);
 
-        Cache cache = new RedissonCache(map, config, allowNullValues);
+        Cache cache = wrapNearCache(new RedissonCache(map, config, allowNullValues), localTtl, localMaxSize);
         if (transactionAware) {
             cache = new TransactionAwareCacheDecorator(cache);
         }
@@ -126,6 +158,36 @@ public class PlusSpringCacheManager implements CacheManager {
         return oldCache != null ? oldCache : cache;
     }
 
+    /**
+     * 在事务感知装饰之内包装 L1，事务提交后才写 L2 和广播失效
+     */
+    private Cache wrapNearCache(Cache cache, long localTtl, int localMaxSize) {
+        if (localTtl <= 0) {
+            return cache;
+        }
+        subscribeInvalidation();
+        NearCache nearCache = new NearCache(cache, localTtl, localMaxSize, invalidation -> {
+            invalidation.setOrigin(nodeId);
+            RedisUtils.publish(CACHE_INVALIDATION_TOPIC, invalidation);
+        });
+        NearCache oldCache = nearCacheMap.putIfAbsent(cache.getName(), nearCache);
+        return oldCache != null ? oldCache : nearCache;
+    }
+
+    private void subscribeInvalidation() {
+        if (subscribed.compareAndSet(false, true)) {
+            RedisUtils.subscribe(CACHE_INVALIDATION_TOPIC, NearCacheInvalidation.class, invalidation -> {
+                if (nodeId.equals(invalidation.getOrigin())) {
+                    return;
+                }
+                NearCache nearCache = nearCacheMap.get(invalidation.getCacheName());
+                if (nearCache != null) {
+                    nearCache.onInvalidation(invalidation);
+                }
+            });
+        }
+    }
+
     @Override
     public Collection<String> getCacheNames() {
         return Collections.unmodifiableSet(configMap.keySet());
@@ -1,18 +1,39 @@
 package org.sounfury.config;
 
+import lombok.RequiredArgsConstructor;
+import org.sounfury.web.conditional.ConditionalGetInterceptor;
+import org.sounfury.web.conditional.ContentVersionStore;
+import org.sounfury.web.conditional.ResponseBodyCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.format.DateTimeFormatter;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<ContentVersionStore> contentVersionStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponseBodyCache responseBodyCache;
+
     @Override
     public void addFormatters(FormatterRegistry registry) {
         DateTimeFormatterRegistrar registrar = new DateTimeFormatterRegistrar();
         registrar.setDateTimeFormatter(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         registrar.registerFormatters(registry);
     }
+
+    /**
+     * 有内容版本存储时启用条件 GET
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        contentVersionStore.ifAvailable(store -> registry.addInterceptor(
+                new ConditionalGetInterceptor(store, eventPublisher, responseBodyCache)));
+    }
 }
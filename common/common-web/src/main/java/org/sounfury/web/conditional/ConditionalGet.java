@@ -0,0 +1,30 @@
+package org.sounfury.web.conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 按内容版本做条件 GET
+ * 响应带上由所依赖资源版本组成的 ETag 和 Last-Modified，请求的 If-None-Match / If-Modified-Since 命中时
+ * 直接返回 304，不进入控制器，不查库也不序列化响应体。
+ * 资源名中的 {name} 取同名路径变量或请求参数，例如 "article:{id}"
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * 响应内容依赖的资源，任意一个资源版本变化 ETag 即变化
+     */
+    String[] value();
+
+    /**
+     * 是否缓存序列化后的响应体，版本未变时直接写出缓存的字节（gzip 按 Accept-Encoding 协商）。
+     * 只用于不区分访问者、只由所列资源决定内容的接口
+     */
+    boolean cacheBody() default false;
+}
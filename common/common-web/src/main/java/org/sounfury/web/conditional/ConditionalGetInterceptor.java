@@ -0,0 +1,138 @@
+package org.sounfury.web.conditional;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 处理 {@link ConditionalGet} 标注的接口
+ * 版本在控制器执行前读取，ETag 是否会比响应内容新取决于 {@link ContentVersionStore}：
+ * 内容来自异步更新的节点内存状态时，版本必须在状态更新后才变化（或把本地状态代数计入 ETag），
+ * 否则版本递增与状态更新之间的请求会用新 ETag 缓存旧内容，之后一直得到 304。
+ * 缓存的响应体按同一个 ETag 存取，同样依赖这一约定
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    private static final Pattern VARIABLE = Pattern.compile("\\{([^}]+)}");
+    private static final Pattern GZIP_DISABLED = Pattern.compile("gzip\\s*;\\s*q\\s*=\\s*0(\\.0*)?\\s*(,|$)");
+
+    /**
+     * 未命中响应体缓存时记下缓存 key 和版本，由 {@link ResponseBodyCachingAdvice} 写入缓存
+     */
+    static final String BODY_CACHE_KEY_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".BODY_CACHE_KEY";
+    static final String BODY_CACHE_TAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".BODY_CACHE_TAG";
+
+    private final ContentVersionStore versionStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponseBodyCache responseBodyCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        List<String> resources = resolve(conditionalGet.value(), request);
+        ContentVersion version;
+        try {
+            version = versionStore.get(resources);
+        } catch (Exception e) {
+            //版本读取失败时按普通请求处理
+            log.warn("读取内容版本失败：{}", resources, e);
+            return true;
+        }
+
+        //要求客户端每次都来校验
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + version.tag() + "\"",
+                version.lastModified())) {
+            eventPublisher.publishEvent(new ContentNotModifiedEvent(resources));
+            return false;
+        }
+        if (conditionalGet.cacheBody()) {
+            String key = ResponseBodyCache.key(request);
+            ResponseBodyCache.Entry cached = responseBodyCache.get(key, version.tag());
+            if (cached != null) {
+                writeCached(request, response, cached);
+                return false;
+            }
+            request.setAttribute(BODY_CACHE_KEY_ATTRIBUTE, key);
+            request.setAttribute(BODY_CACHE_TAG_ATTRIBUTE, version.tag());
+        }
+        return true;
+    }
+
+    private static void writeCached(HttpServletRequest request, HttpServletResponse response,
+                                    ResponseBodyCache.Entry cached) throws IOException {
+        byte[] body = cached.json();
+        if (cached.gzip() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = cached.gzip();
+            }
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(body.length);
+        response.getOutputStream()
+                .write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        String normalized = acceptEncoding.toLowerCase();
+        return normalized.contains("gzip") && !GZIP_DISABLED.matcher(normalized)
+                .find();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> resolve(String[] patterns, HttpServletRequest request) {
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            pathVariables = Collections.emptyMap();
+        }
+        List<String> resources = new ArrayList<>(patterns.length);
+        for (String pattern : patterns) {
+            Matcher matcher = VARIABLE.matcher(pattern);
+            StringBuilder resource = new StringBuilder();
+            while (matcher.find()) {
+                String name = matcher.group(1);
+                String value = pathVariables.getOrDefault(name, request.getParameter(name));
+                matcher.appendReplacement(resource, Matcher.quoteReplacement(value == null ? "" : value));
+            }
+            matcher.appendTail(resource);
+            resources.add(resource.toString());
+        }
+        return resources;
+    }
+}
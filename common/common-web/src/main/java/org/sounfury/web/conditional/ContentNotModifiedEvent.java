@@ -0,0 +1,11 @@
+package org.sounfury.web.conditional;
+
+import java.util.List;
+
+/**
+ * 条件 GET 命中返回 304 时发布，控制器没有执行，需要按请求计数的逻辑（如阅读量）可以监听该事件
+ *
+ * @param resources 已解析的资源名
+ */
+public record ContentNotModifiedEvent(List<String> resources) {
+}
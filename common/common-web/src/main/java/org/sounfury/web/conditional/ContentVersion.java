@@ -0,0 +1,10 @@
+package org.sounfury.web.conditional;
+
+/**
+ * 一组资源的内容版本
+ *
+ * @param tag          版本标识，用于生成 ETag
+ * @param lastModified 最后修改时间（毫秒），未知时为 -1
+ */
+public record ContentVersion(String tag, long lastModified) {
+}
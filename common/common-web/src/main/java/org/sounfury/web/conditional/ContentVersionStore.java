@@ -0,0 +1,15 @@
+package org.sounfury.web.conditional;
+
+import java.util.List;
+
+/**
+ * 资源内容版本存储，写操作提交后递增版本，条件 GET 读取版本生成 ETag
+ */
+public interface ContentVersionStore {
+
+    /**
+     * 读取一组资源的合并版本
+     * 返回的 ETag 不能先于本节点生成响应所用的内容变化，否则新 ETag 会对应旧内容
+     */
+    ContentVersion get(List<String> resources);
+}
@@ -0,0 +1,101 @@
+package org.sounfury.web.conditional;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化响应体缓存
+ * 按请求路径 + 排序后的参数缓存最终的 UTF-8 JSON 字节和 gzip 压缩后的字节，并记下生成时的内容版本；
+ * 版本一致时由 {@link ConditionalGetInterceptor} 直接写出，不进入控制器也不再序列化。
+ * 内容变化时版本随之变化，旧字节不会再被命中，下一次请求重新生成并覆盖
+ */
+@Slf4j
+@Component
+public class ResponseBodyCache {
+
+    /**
+     * 小于该大小的响应不压缩
+     */
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 最多缓存的请求数，超出后整体清空
+     */
+    @Value("${blog.web.response-cache.max-entries:512}")
+    private int maxEntries;
+
+    /**
+     * 超过该大小的响应不缓存
+     */
+    @Value("${blog.web.response-cache.max-body-size:1048576}")
+    private int maxBodySize;
+
+    /**
+     * @param tag  生成时的内容版本
+     * @param json UTF-8 JSON
+     * @param gzip gzip 压缩后的 JSON，响应过小时为 null
+     */
+    public record Entry(String tag, byte[] json, byte[] gzip) {
+    }
+
+    /**
+     * 请求对应的缓存 key，参数按名称排序，参数顺序不同的相同请求共用一份
+     */
+    public static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                key.append(key.indexOf("?") < 0 ? '?' : '&')
+                        .append(name)
+                        .append('=')
+                        .append(value);
+            }
+        });
+        return key.toString();
+    }
+
+    /**
+     * 读取与当前版本一致的响应体，版本不一致视为未命中
+     */
+    public Entry get(String key, String tag) {
+        Entry entry = cache.get(key);
+        return entry != null && entry.tag()
+                .equals(tag) ? entry : null;
+    }
+
+    public void put(String key, String tag, byte[] json) {
+        if (json.length > maxBodySize) {
+            return;
+        }
+        if (cache.size() >= maxEntries && !cache.containsKey(key)) {
+            cache.clear();
+        }
+        cache.put(key, new Entry(tag, json, json.length >= GZIP_MIN_SIZE ? gzip(json) : null));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            log.warn("响应体压缩失败", e);
+            return null;
+        }
+        return out.toByteArray();
+    }
+}
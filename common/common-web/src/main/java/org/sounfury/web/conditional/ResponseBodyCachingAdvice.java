@@ -0,0 +1,57 @@
+package org.sounfury.web.conditional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.core.convention.result.Result;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 在响应体写出前把成功结果序列化为字节放入 {@link ResponseBodyCache}
+ * 只处理 {@link ConditionalGet#cacheBody()} 为 true 且拦截器已记下缓存 key 和版本的请求，
+ * 使用与消息转换器相同的 ObjectMapper，缓存的字节与正常写出的响应一致
+ */
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ResponseBodyCachingAdvice implements ResponseBodyAdvice<Object> {
+    private final ResponseBodyCache responseBodyCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        ConditionalGet conditionalGet = returnType.getMethodAnnotation(ConditionalGet.class);
+        return conditionalGet != null && conditionalGet.cacheBody();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof Result<?> result) || !result.isSuccess()
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(selectedContentType)
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String key = (String) httpRequest.getAttribute(ConditionalGetInterceptor.BODY_CACHE_KEY_ATTRIBUTE);
+        String tag = (String) httpRequest.getAttribute(ConditionalGetInterceptor.BODY_CACHE_TAG_ATTRIBUTE);
+        if (key == null || tag == null) {
+            return body;
+        }
+        try {
+            responseBodyCache.put(key, tag, objectMapper.writeValueAsBytes(body));
+        } catch (Exception e) {
+            log.warn("响应体预序列化失败：{}", key, e);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,255 @@
+package org.sounfury.portal.cache;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RMapCacheAsync;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.dto.rep.ArticleCategoryDto;
+import org.sounfury.portal.dto.rep.PageArticleRep;
+import org.sounfury.portal.dto.rep.TagPortalDto;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.portal.repository.CategoryPortalRepository;
+import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_CARD;
+
+/**
+ * 文章卡片投影（门户读模型）
+ * 已发布文章的卡片（标题、摘要、缩略图、标签、分类等）按文章id存放在 Redis 中，每张卡片有过期时间，
+ * 列表、详情、搜索按id批量取卡片，不再每次联表查询标签和分类；未命中的卡片从数据库补齐并写回。
+ * 后台写文章、改分类时在事务提交后按id重建受影响的卡片，也可以整体重建。
+ * 阅读量以计数器为准，卡片里的阅读量只是构建时的快照。
+ * <p>
+ * 与文章详情缓存相同，重建时已下线、删除或重建失败的卡片写入短期的失效标记，读取回源后只在没有任何值时写入，
+ * 提交前开始回源的读请求不会用旧卡片覆盖重建结果或失效标记
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleCardProjection {
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private final ArticlePortalRepository articleRepository;
+    private final TagPortalRepository tagRepository;
+    private final CategoryPortalRepository categoryRepository;
+
+    @Value("${blog.article.card-ttl:24h}")
+    private Duration ttl;
+
+    /**
+     * 失效标记的有效期，需长于一次回源的耗时
+     */
+    @Value("${blog.article.card-invalidated-ttl:10s}")
+    private Duration invalidatedTtl;
+
+    /**
+     * 缓存项，invalidated 为 true 时是失效标记，card 为空
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Entry {
+        private boolean invalidated;
+        private PageArticleRep card;
+
+        static Entry of(PageArticleRep card) {
+            Entry entry = new Entry();
+            entry.setCard(card);
+            return entry;
+        }
+
+        static Entry invalidatedMarker() {
+            Entry entry = new Entry();
+            entry.setInvalidated(true);
+            return entry;
+        }
+    }
+
+    private RMapCache<Long, Entry> cards() {
+        return RedisUtils.getClient().getMapCache(ARTICLE_CARD);
+    }
+
+    /**
+     * 按文章id批量获取卡片，未发布或不存在的文章不在结果中
+     */
+    public Map<Long, PageArticleRep> getCards(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Long> ids = new LinkedHashSet<>(articleIds);
+        Map<Long, PageArticleRep> result = new HashMap<>();
+        Set<Long> invalidated = new HashSet<>();
+        try {
+            cards().getAll(ids)
+                    .forEach((id, entry) -> {
+                        if (entry.isInvalidated()) {
+                            invalidated.add(id);
+                        } else {
+                            result.put(id, entry.getCard());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("读取文章卡片失败，回源数据库", e);
+        }
+
+        Set<Long> missing = ids.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            Map<Long, PageArticleRep> loaded = load(missing);
+            result.putAll(loaded);
+            //刚失效的卡片不回写，等失效标记过期后再由读请求写入
+            Map<Long, PageArticleRep> storable = new HashMap<>(loaded);
+            storable.keySet()
+                    .removeAll(invalidated);
+            storeIfAbsent(storable);
+        }
+        return result;
+    }
+
+    /**
+     * 文章新增、更新、删除，事务提交后重建该文章的卡片
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        doRefresh(Set.of(event.articleId()));
+    }
+
+    /**
+     * 分类变更后重建其下文章的卡片
+     */
+    public void refreshByCategory(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(categoryIds);
+        TransactionUtils.afterCommit(() -> doRefresh(articleRepository.fetchIdsByCategoryIds(ids)));
+    }
+
+    /**
+     * 整体重建投影
+     *
+     * @return 重建的卡片数
+     */
+    public int rebuild() {
+        List<Long> publishedIds = articleRepository.fetchPublishedIds();
+        cards().delete();
+        int total = 0;
+        for (int from = 0; from < publishedIds.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> batch = publishedIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, publishedIds.size()));
+            Map<Long, PageArticleRep> loaded = load(batch);
+            store(loaded, Set.of());
+            total += loaded.size();
+        }
+        log.info("文章卡片投影重建完成，共 {} 篇", total);
+        return total;
+    }
+
+    private void doRefresh(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, PageArticleRep> loaded = load(articleIds);
+            //已删除或未发布的文章写入失效标记，之前开始的回源不会把旧卡片写回
+            Set<Long> removed = articleIds.stream()
+                    .filter(id -> !loaded.containsKey(id))
+                    .collect(Collectors.toSet());
+            store(loaded, removed);
+        } catch (Exception e) {
+            //重建失败时写入失效标记，标记过期后读取时回源
+            log.error("文章卡片重建失败，文章id：{}", articleIds, e);
+            try {
+                store(Map.of(), Set.copyOf(articleIds));
+            } catch (Exception ex) {
+                log.error("文章卡片失效标记写入失败，文章id：{}", articleIds, ex);
+            }
+        }
+    }
+
+    /**
+     * 从数据库构建卡片：一次查文章、一次查标签、一次查分类
+     */
+    private Map<Long, PageArticleRep> load(Collection<Long> articleIds) {
+        List<PageArticleRep> articles = articleRepository.fetchPublishedByIds(articleIds);
+        if (articles.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = articles.stream()
+                .map(PageArticleRep::getId)
+                .toList();
+        Set<Long> categoryIds = articles.stream()
+                .map(PageArticleRep::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, List<TagPortalDto>> tagMap = tagRepository.fetchTagsByArticleIds(ids);
+        Map<Long, ArticleCategoryDto> categoryMap = categoryRepository.fetchCategoryDictByIds(categoryIds);
+
+        Map<Long, PageArticleRep> cards = new HashMap<>(articles.size());
+        articles.forEach(article -> {
+            article.setTags(tagMap.getOrDefault(article.getId(), Collections.emptyList()));
+            article.setCategory(categoryMap.get(article.getCategoryId()));
+            cards.put(article.getId(), article);
+        });
+        return cards;
+    }
+
+    /**
+     * 重建结果直接覆盖，invalidatedIds 写入失效标记
+     */
+    private void store(Map<Long, PageArticleRep> loaded, Set<Long> invalidatedIds) {
+        if (loaded.isEmpty() && invalidatedIds.isEmpty()) {
+            return;
+        }
+        RBatch batch = RedisUtils.getClient()
+                .createBatch();
+        RMapCacheAsync<Long, Entry> batchCards = batch.getMapCache(ARTICLE_CARD);
+        loaded.forEach((id, card) -> batchCards.fastPutAsync(id, Entry.of(card), ttl.toMillis(),
+                TimeUnit.MILLISECONDS));
+        Entry marker = Entry.invalidatedMarker();
+        invalidatedIds.forEach(id -> batchCards.fastPutAsync(id, marker, invalidatedTtl.toMillis(),
+                TimeUnit.MILLISECONDS));
+        batch.execute();
+    }
+
+    /**
+     * 读取回源的结果只在没有任何值时写入，不覆盖重建结果和失效标记
+     */
+    private void storeIfAbsent(Map<Long, PageArticleRep> loaded) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        try {
+            RBatch batch = RedisUtils.getClient()
+                    .createBatch();
+            RMapCacheAsync<Long, Entry> batchCards = batch.getMapCache(ARTICLE_CARD);
+            loaded.forEach((id, card) -> batchCards.fastPutIfAbsentAsync(id, Entry.of(card), ttl.toMillis(),
+                    TimeUnit.MILLISECONDS));
+            batch.execute();
+        } catch (Exception e) {
+            log.warn("写入文章卡片失败", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.sounfury.portal.cache;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RMapCacheAsync;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.blog.jooq.tables.pojos.Category;
+import org.sounfury.core.convention.exception.ServiceException;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.dto.rep.ArticleCategoryDto;
+import org.sounfury.portal.dto.rep.PageArticleRep;
+import org.sounfury.portal.dto.rep.SingleArticleRep;
+import org.sounfury.portal.dto.rep.TagPortalDto;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.portal.repository.CategoryPortalRepository;
+import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_DETAIL;
+
+/**
+ * 文章详情缓存
+ * 组装好的文章详情（正文、标签、分类）按文章id存放在 Redis 中，正文 gzip 压缩；
+ * 不存在或已删除的id也缓存一个短期的空标记，避免探测不存在的id反复打到数据库。
+ * 阅读量不在缓存中，由调用方按计数器填充。文章、分类写入后在事务提交后失效对应的详情。
+ * <p>
+ * 失效时不直接删除，而是写入一个短期的失效标记；回源后只在缓存中没有任何值时写入（putIfAbsent），
+ * 遇到失效标记时只返回不写入。提交前开始回源的读请求即使在失效之后才写缓存，也不会把旧详情存上一整个有效期
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleDetailCache {
+    private final ArticlePortalRepository articleRepository;
+    private final TagPortalRepository tagRepository;
+    private final CategoryPortalRepository categoryRepository;
+    private final ArticleCardProjection articleCardProjection;
+
+    @Value("${blog.article.detail-cache-ttl:24h}")
+    private Duration ttl;
+
+    /**
+     * 空标记的有效期
+     */
+    @Value("${blog.article.detail-cache-negative-ttl:5m}")
+    private Duration negativeTtl;
+
+    /**
+     * 失效标记的有效期，需长于一次回源的耗时，期间的读取直接回源
+     */
+    @Value("${blog.article.detail-cache-invalidated-ttl:10s}")
+    private Duration invalidatedTtl;
+
+    /**
+     * 缓存项，missing 为 true 时表示文章不存在，invalidated 为 true 时是失效标记
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Entry {
+        private boolean missing;
+        private boolean invalidated;
+        private SingleArticleRep detail;
+        private byte[] compressedContent;
+    }
+
+    private RMapCache<Long, Entry> entries() {
+        return RedisUtils.getClient().getMapCache(ARTICLE_DETAIL);
+    }
+
+    /**
+     * 获取文章详情，每次返回新的对象，阅读量为空
+     *
+     * @return 文章不存在或已删除时返回 null
+     */
+    public SingleArticleRep get(Long articleId) {
+        Entry entry = null;
+        try {
+            entry = entries().get(articleId);
+        } catch (Exception e) {
+            log.warn("读取文章详情缓存失败，回源数据库，文章id：{}", articleId, e);
+        }
+        if (entry == null || entry.isInvalidated()) {
+            boolean invalidated = entry != null;
+            entry = load(articleId);
+            //刚失效的详情不回写，等失效标记过期后再由读请求写入
+            if (!invalidated) {
+                store(articleId, entry);
+            }
+        }
+        if (entry.isMissing()) {
+            return null;
+        }
+        SingleArticleRep detail = copyOf(entry.getDetail());
+        detail.setContent(decompress(entry.getCompressedContent()));
+        return detail;
+    }
+
+    /**
+     * 文章新增、更新、删除，事务提交后失效该文章的详情；新增文章也要失效，清掉之前探测留下的空标记
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        invalidate(Set.of(event.articleId()));
+    }
+
+    /**
+     * 分类变更后失效其下文章的详情
+     */
+    public void evictByCategory(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(categoryIds);
+        TransactionUtils.afterCommit(() -> {
+            List<Long> articleIds = articleRepository.fetchIdsByCategoryIds(ids);
+            if (!articleIds.isEmpty()) {
+                invalidate(articleIds);
+            }
+        });
+    }
+
+    /**
+     * 用失效标记覆盖详情，之前开始的回源不会再写入
+     */
+    private void invalidate(Collection<Long> articleIds) {
+        Entry marker = new Entry();
+        marker.setInvalidated(true);
+        RBatch batch = RedisUtils.getClient()
+                .createBatch();
+        RMapCacheAsync<Long, Entry> batchEntries = batch.getMapCache(ARTICLE_DETAIL);
+        articleIds.forEach(articleId -> batchEntries.fastPutAsync(articleId, marker, invalidatedTtl.toMillis(),
+                TimeUnit.MILLISECONDS));
+        batch.execute();
+    }
+
+    private Entry load(Long articleId) {
+        Entry entry = new Entry();
+        Article article = articleRepository.fetchOneById(articleId);
+        if (article == null || !Objects.equals(article.getDelFlag(), NOT_DEL_FLAG)) {
+            entry.setMissing(true);
+            return entry;
+        }
+        SingleArticleRep detail = new SingleArticleRep(article);
+        //已发布文章的标签和分类直接取卡片投影，未发布的才联表查询
+        PageArticleRep card = articleCardProjection.getCards(List.of(articleId))
+                .get(articleId);
+        if (card != null) {
+            detail.setTags(card.getTags());
+            detail.setCategory(card.getCategory());
+        } else {
+            detail.setTags(tagRepository.fetchByArticleId(articleId)
+                    .stream()
+                    .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
+                    .distinct()
+                    .toList());
+            Category category = article.getCategoryId() == null ? null
+                    : categoryRepository.fetchOneById(article.getCategoryId());
+            detail.setCategory(category == null ? null : new ArticleCategoryDto(category.getId(), category.getName()));
+        }
+        entry.setCompressedContent(compress(detail.getContent()));
+        detail.setContent(null);
+        detail.setViewCount(null);
+        entry.setDetail(detail);
+        return entry;
+    }
+
+    private void store(Long articleId, Entry entry) {
+        Duration entryTtl = entry.isMissing() ? negativeTtl : ttl;
+        try {
+            entries().fastPutIfAbsent(articleId, entry, entryTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("写入文章详情缓存失败，文章id：{}", articleId, e);
+        }
+    }
+
+    private static SingleArticleRep copyOf(SingleArticleRep source) {
+        return new SingleArticleRep(source.getId(), source.getTitle(), null, source.getSummary(),
+                source.getThumbnail(), source.getCategory(), source.getIsTop(), null, source.getCreateBy(),
+                source.getCreateTime(), source.getUpdateTime(), source.getTags(), null);
+    }
+
+    private static byte[] compress(String content) {
+        if (content == null) {
+            return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ServiceException("文章正文压缩失败");
+        }
+        return output.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ServiceException("文章正文解压失败");
+        }
+    }
+}
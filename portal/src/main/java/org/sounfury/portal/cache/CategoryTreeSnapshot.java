@@ -0,0 +1,190 @@
+package org.sounfury.portal.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.records.CategoryRecord;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.dto.rep.CategoryTreeNode;
+import org.sounfury.portal.repository.CategoryPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+import static org.sounfury.core.constant.RedisKeyConstant.CATEGORY_TREE_TOPIC;
+
+/**
+ * 分类树快照
+ * 分类很少变化，读取时直接返回内存中的不可变快照，不再每次查全表建树；
+ * 后台增删改分类后在事务提交后失效，并通过 Redis topic 通知其他节点，下次读取时重建。
+ * 快照同时保存父子关系（含停用分类），查询子孙分类只遍历对应子树
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeSnapshot {
+    private static final Comparator<CategoryRecord> CATEGORY_ORDER = Comparator
+            .comparing(CategoryRecord::getOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CategoryRecord::getId);
+
+    private final CategoryPortalRepository categoryRepository;
+    private final ContentVersions contentVersions;
+
+    /**
+     * 每次失效加一，重建期间又发生失效的快照不会被采用
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param version  构建时的版本
+     * @param tree     启用分类组成的树
+     * @param dict     启用分类 id -> 名称，按排序
+     * @param children 未删除分类（含停用）的 父id -> 子id，根分类的父id为 null
+     */
+    private record Snapshot(long version, List<CategoryTreeNode> tree, Map<Long, String> dict,
+                            Map<Long, List<Long>> children) {
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(CATEGORY_TREE_TOPIC, Long.class, ignored -> invalidateLocal());
+    }
+
+    /**
+     * 分类树，不可修改
+     */
+    public List<CategoryTreeNode> tree() {
+        return current().tree();
+    }
+
+    /**
+     * 启用分类的 id -> 名称 字典
+     */
+    public Map<Long, String> dict() {
+        return current().dict();
+    }
+
+    /**
+     * 快照版本，分类变更后递增
+     */
+    public long version() {
+        return current().version();
+    }
+
+    /**
+     * 某个分类的所有子孙分类id（不含自身，含停用分类）
+     */
+    public List<Long> descendantIds(Long categoryId) {
+        Map<Long, List<Long>> children = current().children();
+        List<Long> result = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        visited.add(categoryId);
+        Deque<Long> pending = new ArrayDeque<>(children.getOrDefault(categoryId, Collections.emptyList()));
+        while (!pending.isEmpty()) {
+            Long id = pending.poll();
+            //数据异常出现环时避免死循环
+            if (visited.add(id)) {
+                result.add(id);
+                pending.addAll(children.getOrDefault(id, Collections.emptyList()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分类变更后失效所有节点的快照，有事务时在提交后执行
+     */
+    public void invalidate() {
+        TransactionUtils.afterCommit(() -> {
+            invalidateLocal();
+            try {
+                RedisUtils.publish(CATEGORY_TREE_TOPIC, version.get());
+            } catch (Exception e) {
+                //本节点已失效，其他节点的快照等下次通知或重启后重建
+                log.warn("分类树快照失效通知失败", e);
+            }
+        });
+        contentVersions.bump(ContentVersions.CATEGORY);
+    }
+
+    private void invalidateLocal() {
+        version.incrementAndGet();
+        snapshot = null;
+        contentVersions.localStateChanged(ContentVersions.CATEGORY);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                long buildVersion = version.get();
+                current = build(buildVersion);
+                if (version.get() == buildVersion) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build(long buildVersion) {
+        List<CategoryRecord> records = new ArrayList<>(categoryRepository.getAllUndeletedCategories());
+        records.sort(CATEGORY_ORDER);
+
+        Map<Long, List<Long>> children = new HashMap<>();
+        Map<Long, CategoryRecord> enabled = new LinkedHashMap<>();
+        for (CategoryRecord record : records) {
+            children.computeIfAbsent(record.getPid(), key -> new ArrayList<>())
+                    .add(record.getId());
+            if (Objects.equals(record.getEnableStatus(), STATUS_ENABLE)) {
+                enabled.put(record.getId(), record);
+            }
+        }
+        children.replaceAll((pid, ids) -> List.copyOf(ids));
+
+        Map<Long, String> dict = new LinkedHashMap<>();
+        enabled.values()
+                .forEach(record -> dict.put(record.getId(), record.getName()));
+
+        //停用分类及其子树不出现在分类树中
+        List<CategoryTreeNode> tree = children.getOrDefault(null, Collections.emptyList())
+                .stream()
+                .filter(enabled::containsKey)
+                .map(id -> toNode(enabled.get(id), enabled, children))
+                .toList();
+        log.debug("分类树快照已重建，版本 {}，共 {} 个分类", buildVersion, enabled.size());
+        return new Snapshot(buildVersion, tree, Collections.unmodifiableMap(dict), children);
+    }
+
+    private static CategoryTreeNode toNode(CategoryRecord record, Map<Long, CategoryRecord> enabled,
+                                           Map<Long, List<Long>> children) {
+        CategoryTreeNode node = new CategoryTreeNode(record.getId(), record.getName(), record.getPid(),
+                record.getDescription(), record.getOrder());
+        node.setChildren(children.getOrDefault(record.getId(), Collections.emptyList())
+                .stream()
+                .filter(enabled::containsKey)
+                .map(id -> toNode(enabled.get(id), enabled, children))
+                .toList());
+        return node;
+    }
+}
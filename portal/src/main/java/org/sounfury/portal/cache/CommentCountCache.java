@@ -0,0 +1,84 @@
+package org.sounfury.portal.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.repository.CommentPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_COMMENT_COUNT;
+
+/**
+ * 文章评论数缓存
+ * 文章id -> 已审核评论数（含回复），存放在 Redis hash 中，未命中时批量统计并写回；
+ * 新增、审核、删除评论后在事务提交后失效对应文章，并递增文章列表统计的内容版本
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCountCache {
+    private final CommentPortalRepository commentRepository;
+    private final ContentVersions contentVersions;
+
+    private RMap<Long, Long> counts() {
+        return RedisUtils.getClient().getMap(ARTICLE_COMMENT_COUNT);
+    }
+
+    public long getCount(Long articleId) {
+        return getCounts(Collections.singleton(articleId)).getOrDefault(articleId, 0L);
+    }
+
+    /**
+     * 批量获取文章评论数，没有评论的文章为 0
+     */
+    public Map<Long, Long> getCounts(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Long> ids = new LinkedHashSet<>(articleIds);
+        Map<Long, Long> result = new HashMap<>();
+        try {
+            result.putAll(counts().getAll(ids));
+        } catch (Exception e) {
+            log.warn("读取文章评论数缓存失败，回源数据库", e);
+        }
+
+        Set<Long> missing = ids.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            Map<Long, Integer> counted = commentRepository.countByArticleIds(missing);
+            Map<Long, Long> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, counted.getOrDefault(id, 0)
+                    .longValue()));
+            result.putAll(loaded);
+            try {
+                counts().putAll(loaded);
+            } catch (Exception e) {
+                log.warn("写入文章评论数缓存失败", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 失效文章评论数，有事务时在提交后执行
+     */
+    public void evict(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> counts().fastRemove(articleId));
+        contentVersions.bump(ContentVersions.ARTICLE_STATS);
+    }
+}
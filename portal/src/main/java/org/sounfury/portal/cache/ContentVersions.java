@@ -0,0 +1,161 @@
+package org.sounfury.portal.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.utils.RedisUtils;
+import org.sounfury.web.conditional.ContentVersion;
+import org.sounfury.web.conditional.ContentVersionStore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.sounfury.core.constant.RedisKeyConstant.CONTENT_VERSION;
+
+/**
+ * 门户内容版本
+ * 各资源的版本号和最后修改时间存放在 Redis hash 中，所有节点共用；后台写操作在事务提交后递增版本，
+ * 条件 GET 用版本生成 ETag。hash 中另存一个随机纪元，Redis 数据丢失后版本从头计数也不会与旧 ETag 重合。
+ * <p>
+ * 文章集合、分类、标签的部分内容来自各节点内存中的统计和快照，它们收到 Redis topic 通知后才更新，
+ * 晚于全局版本递增。这几类资源的 ETag 另外带上本节点 id 和本地状态代数，内存状态更新后代数加一，
+ * 版本已递增而内存未更新时生成的 ETag 会在内存更新后失效，不会用新版本长期对应旧内容。
+ * 代价是这几类资源的 ETag 按节点区分，请求落到另一个节点时需要重新下载一次
+ */
+@Slf4j
+@Component
+public class ContentVersions implements ContentVersionStore {
+    /**
+     * 单篇文章详情，后接 :文章id
+     */
+    public static final String ARTICLE = "article";
+    /**
+     * 文章列表、归档等整体依赖文章集合的内容
+     */
+    public static final String ARTICLES = "articles";
+    public static final String CATEGORY = "category";
+    public static final String TAG = "tag";
+    public static final String SITE = "site";
+    /**
+     * 文章列表中的阅读量、评论数，阅读量写回数据库、评论变化后递增
+     */
+    public static final String ARTICLE_STATS = "article-stats";
+
+    private static final String EPOCH_FIELD = "__epoch";
+    private static final String MODIFIED_SUFFIX = "@modified";
+
+    /**
+     * 内容依赖节点内存状态的资源 -> 本地状态代数
+     */
+    private final Map<String, AtomicLong> localGenerations = Map.of(
+            ARTICLES, new AtomicLong(),
+            CATEGORY, new AtomicLong(),
+            TAG, new AtomicLong());
+
+    /**
+     * 本节点 id，不同节点的代数互不相关
+     */
+    private final String nodeId = Long.toHexString(UUID.randomUUID()
+            .getLeastSignificantBits() & Long.MAX_VALUE);
+
+    private RMap<String, Long> versions() {
+        return RedisUtils.getClient().getMap(CONTENT_VERSION);
+    }
+
+    public static String article(Long articleId) {
+        return ARTICLE + ":" + articleId;
+    }
+
+    /**
+     * 递增资源版本，有事务时在提交后、所有提交后的缓存失效和重建完成之后执行，
+     * 新版本生成的 ETag 和缓存的响应体不会对应失效前的共享缓存内容
+     */
+    public void bump(String... resources) {
+        Set<String> names = new HashSet<>(List.of(resources));
+        TransactionUtils.afterCommitLast(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                RMap<String, Long> versions = versions();
+                for (String name : names) {
+                    versions.fastPut(name + MODIFIED_SUFFIX, now);
+                    versions.addAndGet(name, 1L);
+                }
+            } catch (Exception e) {
+                log.warn("内容版本递增失败：{}", names, e);
+            }
+        });
+    }
+
+    /**
+     * 文章新增、更新、删除，在提交前登记，提交后在各读模型的处理之后递增
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        bump(article(event.articleId()), ARTICLES, TAG);
+    }
+
+    /**
+     * 本节点的内存状态已应用变更，在统计、快照、索引更新之后调用
+     */
+    public void localStateChanged(String resource) {
+        AtomicLong generation = localGenerations.get(resource);
+        if (generation != null) {
+            generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public ContentVersion get(List<String> resources) {
+        Set<String> fields = new HashSet<>();
+        fields.add(EPOCH_FIELD);
+        resources.forEach(resource -> {
+            fields.add(resource);
+            fields.add(resource + MODIFIED_SUFFIX);
+        });
+        Map<String, Long> values = versions().getAll(fields);
+        Long epoch = values.get(EPOCH_FIELD);
+        if (epoch == null) {
+            versions().fastPutIfAbsent(EPOCH_FIELD, UUID.randomUUID()
+                    .getMostSignificantBits() & Long.MAX_VALUE);
+            epoch = versions().get(EPOCH_FIELD);
+        }
+
+        List<String> tags = new ArrayList<>(resources.size() + 1);
+        tags.add(Long.toHexString(epoch));
+        long lastModified = -1;
+        boolean modifiedKnown = true;
+        long localGeneration = 0;
+        boolean localState = false;
+        for (String resource : resources) {
+            tags.add(Long.toHexString(values.getOrDefault(resource, 0L)));
+            AtomicLong generation = localGenerations.get(resource);
+            if (generation != null) {
+                localState = true;
+                localGeneration += generation.get();
+            }
+            Long modified = values.get(resource + MODIFIED_SUFFIX);
+            if (modified == null) {
+                modifiedKnown = false;
+            } else {
+                lastModified = Math.max(lastModified, modified);
+            }
+        }
+        if (localState) {
+            tags.add(nodeId);
+            tags.add(Long.toHexString(localGeneration));
+            //修改时间反映不了内存状态何时更新，只按 ETag 校验
+            modifiedKnown = false;
+        }
+        //有资源没有修改时间时不给 Last-Modified，只按 ETag 校验
+        return new ContentVersion(String.join("-", tags), modifiedKnown ? lastModified : -1);
+    }
+}
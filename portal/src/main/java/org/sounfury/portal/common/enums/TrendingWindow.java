@@ -0,0 +1,69 @@
+package org.sounfury.portal.common.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * 热门文章统计窗口
+ * 窗口内每小时的阅读量按距今时间指数衰减后求和，半衰期越短越偏向最近的阅读
+ */
+public enum TrendingWindow {
+    DAY("DAY", 24, 6),
+    WEEK("WEEK", 24 * 7, 48),
+    MONTH("MONTH", 24 * 30, 24 * 7);
+
+    private final String label;
+
+    /**
+     * 窗口长度（小时）
+     */
+    private final int hours;
+
+    /**
+     * 衰减半衰期（小时）
+     */
+    private final int halfLifeHours;
+
+    TrendingWindow(String label, int hours, int halfLifeHours) {
+        this.label = label;
+        this.hours = hours;
+        this.halfLifeHours = halfLifeHours;
+    }
+
+    @JsonCreator
+    public static TrendingWindow fromValue(String value) {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            if (window.label.equalsIgnoreCase(value)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Invalid trending window: " + value);
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    /**
+     * 距今 ageHours 小时的阅读量的权重
+     */
+    public double weight(long ageHours) {
+        return Math.pow(0.5, (double) ageHours / halfLifeHours);
+    }
+
+    /**
+     * 所有窗口中最长的小时数，小时桶保留这么久
+     */
+    public static int maxHours() {
+        int max = 0;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            max = Math.max(max, window.hours);
+        }
+        return max;
+    }
+}
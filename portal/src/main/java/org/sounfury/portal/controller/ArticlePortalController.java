@@ -4,8 +4,13 @@ import cn.dev33.satoken.annotation.SaIgnore;
 import lombok.AllArgsConstructor;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.common.enums.TrendingWindow;
+import org.sounfury.portal.dto.rep.ArticleSearchRep;
 import org.sounfury.portal.dto.rep.HistoryCount;
 import org.sounfury.portal.dto.rep.PageArticleRep;
 import org.sounfury.portal.dto.rep.SingleArticleRep;
@@ -13,9 +18,11 @@ import org.sounfury.portal.dto.req.CategoryPageReq;
 import org.sounfury.portal.dto.req.HistoryPageArticlesReq;
 import org.sounfury.portal.dto.req.TagPageReq;
 import org.sounfury.portal.service.ArticlePortalService;
+import org.sounfury.web.conditional.ConditionalGet;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -32,11 +39,14 @@ public class ArticlePortalController {
 
     /**
      * 根据id获取文章
+     * 阅读量和相关文章卡片中的阅读量不计入 ETag，返回 304 时客户端沿用上次取到的阅读量，
+     * 文章或文章集合变化后才会刷新；304 的访问同样计入阅读量
      *
      * @param id
      * @return
      */
     @GetMapping("/{id:\\d+}")
+    @ConditionalGet({ContentVersions.ARTICLE + ":{id}", ContentVersions.ARTICLES, ContentVersions.CATEGORY})
     public Result<SingleArticleRep> getArticleById(@PathVariable Long id) {
         return Results.success(
                 articleService.getArticleById(id)
@@ -47,10 +57,20 @@ public class ArticlePortalController {
      * 分页查询文章
      */
     @GetMapping("/page")
+    @ConditionalGet(value = {ContentVersions.ARTICLES, ContentVersions.CATEGORY, ContentVersions.ARTICLE_STATS},
+            cacheBody = true)
     public Result<PageRepDto<List<PageArticleRep>>> pageQueryArticle(PageReqDto pageReqDto) {
         return Results.success(articleService.pageQueryArticle(pageReqDto));
     }
 
+    /**
+     * 游标分页查询文章，传入上一页返回的 nextCursor / prevCursor 翻页
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPageRepDto<List<PageArticleRep>>> cursorQueryArticle(CursorPageReqDto pageReqDto) {
+        return Results.success(articleService.cursorQueryArticle(pageReqDto));
+    }
+
     /**
      * 查询历史文章
      */
@@ -63,15 +83,27 @@ public class ArticlePortalController {
      * 查询最近月份的文章数量
      */
     @GetMapping("/history/count")
+    @ConditionalGet(ContentVersions.ARTICLES)
     public Result<List<HistoryCount>> historyArticleCount() {
         return Results.success(articleService.historyArticleCount());
     }
 
+    /**
+     * 查询每年的文章数量
+     */
+    @GetMapping("/history/count/year")
+    @ConditionalGet(ContentVersions.ARTICLES)
+    public Result<List<HistoryCount>> historyArticleCountByYear() {
+        return Results.success(articleService.historyArticleCountByYear());
+    }
+
 
     /**
      * 根据分类id分页查询文章
      */
     @GetMapping("/category/page")
+    @ConditionalGet(value = {ContentVersions.ARTICLES, ContentVersions.CATEGORY, ContentVersions.ARTICLE_STATS},
+            cacheBody = true)
     public Result<PageRepDto<List<PageArticleRep>>>
     pageQueryArticleByCategoryId(CategoryPageReq pageReqDto) {
         return Results.success(articleService.pageQueryArticleByCategoryId(pageReqDto));
@@ -81,17 +113,37 @@ public class ArticlePortalController {
      * 根据tagId分页查询文章
      */
     @GetMapping("/tag/page")
+    @ConditionalGet(value = {ContentVersions.ARTICLES, ContentVersions.CATEGORY, ContentVersions.ARTICLE_STATS},
+            cacheBody = true)
     public Result<PageRepDto<List<PageArticleRep>>>
     pageQueryArticleByTagId(TagPageReq pageReqDto) {
         return Results.success(articleService.pageQueryArticleByTagId(pageReqDto));
     }
 
     /**
-     * 根据标题模糊查询文章
+     * 热门文章，window 可选 DAY / WEEK / MONTH
+     */
+    @GetMapping("/trending")
+    public Result<List<PageArticleRep>> trendingArticles(@RequestParam(defaultValue = "DAY") TrendingWindow window,
+                                                         @RequestParam(defaultValue = "10") int size) {
+        return Results.success(articleService.trendingArticles(window, size));
+    }
+
+    /**
+     * 根据关键词查询文章，返回最相关的 10 篇
      */
     @GetMapping("/search")
     public Result<List<PageArticleRep>> searchArticlesByTitle(String titleKeyword) {
         return Results.success(articleService.searchArticlesByTitle(titleKeyword));
     }
 
+    /**
+     * 全文检索文章，按相关度分页并返回高亮片段
+     */
+    @GetMapping("/search/page")
+    public Result<PageRepDto<List<ArticleSearchRep>>> searchArticles(@RequestParam String keyword,
+                                                                     PageReqDto pageReqDto) {
+        return Results.success(articleService.searchArticles(keyword, pageReqDto));
+    }
+
 }
@@ -5,8 +5,10 @@ import cn.dev33.satoken.annotation.SaIgnore;
 import lombok.RequiredArgsConstructor;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
+import org.sounfury.portal.cache.ContentVersions;
 import org.sounfury.portal.dto.rep.CategoryTreeNode;
 import org.sounfury.portal.service.CategoryPortalService;
+import org.sounfury.web.conditional.ConditionalGet;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,6 +26,7 @@ public class CategoryPortalController {
      * 查询所有的分类
      */
     @GetMapping("/all")
+    @ConditionalGet(value = ContentVersions.CATEGORY, cacheBody = true)
     public Result<List<CategoryTreeNode>> getAllCategory() {
         return Results.success(categoryService.getAllCategory());
     }
@@ -6,14 +6,17 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
+import org.sounfury.jooq.page.CursorPageRepDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.sounfury.portal.dto.req.CommentAddReq;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
+import org.sounfury.portal.dto.req.CommentReplyPageReq;
 import org.sounfury.portal.service.CommentPortalService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -25,7 +28,7 @@ public class CommentPortalController {
     private final CommentPortalService commentService;
 
     /**
-     * 查询某个文章下的所有评论，分页
+     * 查询某个文章下的评论，按顶层评论分页，每个楼层附带前几条回复
      */
     @SaIgnore
     @GetMapping()
@@ -33,6 +36,24 @@ public class CommentPortalController {
         return Results.success(commentService.getCommentsByArticleId(commentPageReq));
     }
 
+    /**
+     * 加载某个楼层的更多回复
+     */
+    @SaIgnore
+    @GetMapping("/replies")
+    public Result<CursorPageRepDto<List<CommentTreeNode>>> getReplies(@Valid CommentReplyPageReq replyPageReq) {
+        return Results.success(commentService.getReplies(replyPageReq));
+    }
+
+    /**
+     * 查询文章评论数
+     */
+    @SaIgnore
+    @GetMapping("/count")
+    public Result<Long> countByArticleId(@RequestParam Long articleId) {
+        return Results.success(commentService.countByArticleId(articleId));
+    }
+
     @SaCheckPermission("COMMENT")
     @PutMapping()
     /**
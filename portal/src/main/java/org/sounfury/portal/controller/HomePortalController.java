@@ -0,0 +1,29 @@
+package org.sounfury.portal.controller;
+
+import cn.dev33.satoken.annotation.SaIgnore;
+import lombok.RequiredArgsConstructor;
+import org.sounfury.core.convention.result.Result;
+import org.sounfury.core.convention.result.Results;
+import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.dto.rep.HomePageRep;
+import org.sounfury.portal.service.HomePortalService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/portal/home")
+@RequiredArgsConstructor
+@SaIgnore
+public class HomePortalController {
+    private final HomePortalService homeService;
+
+    /**
+     * 首页聚合数据，一次请求返回站点信息、统计、分类、标签、归档和第一页文章
+     * 分页参数与 /portal/article/page 相同
+     */
+    @GetMapping
+    public Result<HomePageRep> getHomePage(PageReqDto pageReqDto) {
+        return Results.success(homeService.getHomePage(pageReqDto));
+    }
+}
@@ -7,10 +7,12 @@ import org.sounfury.blog.jooq.tables.pojos.SiteInfo;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
 import org.sounfury.blog.jooq.tables.pojos.SiteInfo;
+import org.sounfury.portal.cache.ContentVersions;
 import org.sounfury.portal.dto.rep.InfoCountRep;
 import org.sounfury.portal.dto.rep.SiteCreatorInfoRep;
 import org.sounfury.portal.dto.rep.SiteInfoRep;
 import org.sounfury.portal.service.SiteInfoPortalService;
+import org.sounfury.web.conditional.ConditionalGet;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -30,7 +32,9 @@ public class SiteInfoPortalController {
     @GetMapping("/info")
     public Result<SiteInfoRep> getSiteInfo() {
         SiteInfo siteInfo = siteInfoService.getSiteInfo();
-        return Results.success(BeanUtil.copyProperties(siteInfo, SiteInfoRep.class));
+        SiteInfoRep siteInfoRep = BeanUtil.copyProperties(siteInfo, SiteInfoRep.class);
+        siteInfoRep.setTodayVisitors(siteInfoService.todayUniqueVisitors());
+        return Results.success(siteInfoRep);
     }
 
     /**
@@ -47,6 +51,7 @@ public class SiteInfoPortalController {
      * 统计文章，标签，分类
      */
     @GetMapping("/count")
+    @ConditionalGet({ContentVersions.SITE, ContentVersions.TAG, ContentVersions.CATEGORY})
     public Result<InfoCountRep> count() {
         return Results.success(siteInfoService.count());
     }
@@ -4,8 +4,10 @@ import cn.dev33.satoken.annotation.SaIgnore;
 import lombok.RequiredArgsConstructor;
 import org.sounfury.core.convention.result.Result;
 import org.sounfury.core.convention.result.Results;
+import org.sounfury.portal.cache.ContentVersions;
 import org.sounfury.portal.dto.rep.TagsQueryRep;
 import org.sounfury.portal.service.TagPortalService;
+import org.sounfury.web.conditional.ConditionalGet;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,6 +26,7 @@ public class TagPortalController {
      * @return
      */
     @GetMapping("/all")
+    @ConditionalGet(value = ContentVersions.TAG, cacheBody = true)
     public Result<List<TagsQueryRep>> getAllTags() {
         return Results.success(tagService.getAllTags());
     }
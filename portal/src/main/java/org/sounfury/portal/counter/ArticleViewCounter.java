@@ -0,0 +1,161 @@
+package org.sounfury.portal.counter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.portal.stats.ArticleTrending;
+import org.sounfury.web.conditional.ContentNotModifiedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章阅读量计数器（write-behind）
+ * 阅读时只在内存中累加，定时把聚合后的增量批量写回 article.view_count，应用关闭时把剩余增量写回；
+ * 写回成功的增量同时记入热门排行。
+ * 已写回的阅读量也按文章缓存在内存中，每次写回后批量刷新一次（包含其他节点写回的增量），
+ * 阅读详情时不再逐次查询数据库，其他节点的阅读最多晚一个写回周期体现
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleViewCounter {
+    private final ArticlePortalRepository articleRepository;
+    private final ContentVersions contentVersions;
+    private final ArticleTrending articleTrending;
+
+    /**
+     * 文章id -> 尚未写回数据库的阅读增量
+     */
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 文章id -> 已写回数据库的阅读量，只保存最近有阅读的文章
+     */
+    private final ConcurrentHashMap<Long, Long> persisted = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次阅读
+     *
+     * @return 该文章当前尚未写回的阅读增量（含本次）
+     */
+    public long increment(Long articleId) {
+        LongAdder adder = pending.computeIfAbsent(articleId, key -> new LongAdder());
+        adder.increment();
+        if (pending.get(articleId) != adder) {
+            //累加前计数器恰好因空闲被 flush 移除，把这次及并发的累加转入新的计数器
+            long moved = adder.sumThenReset();
+            if (moved > 0) {
+                adder = pending.computeIfAbsent(articleId, key -> new LongAdder());
+                adder.add(moved);
+            }
+        }
+        return adder.sum();
+    }
+
+    /**
+     * 文章详情命中条件 GET 返回 304 时控制器不执行，在这里补记阅读
+     */
+    @EventListener
+    public void onNotModified(ContentNotModifiedEvent event) {
+        String prefix = ContentVersions.ARTICLE + ":";
+        event.resources()
+                .stream()
+                .filter(resource -> resource.startsWith(prefix))
+                .forEach(resource -> {
+                    try {
+                        increment(Long.parseLong(resource.substring(prefix.length())));
+                    } catch (NumberFormatException ignored) {
+                        //路径变量不是合法id时不计数
+                    }
+                });
+    }
+
+    /**
+     * 已写回的阅读量加上尚未写回的增量，已写回的部分首次读取时从数据库加载
+     */
+    public long currentViews(Long articleId) {
+        long base = persisted.computeIfAbsent(articleId, key -> articleRepository.fetchViewCounts(List.of(key))
+                .getOrDefault(key, 0L));
+        LongAdder adder = pending.get(articleId);
+        return adder == null ? base : base + adder.sum();
+    }
+
+    /**
+     * 批量计算阅读量，列表、搜索等批量场景使用，不逐篇查询数据库
+     * 调用方给出已知的已写回阅读量（查询结果或卡片快照，可能偏旧）；阅读量只增不减，与内存中的值取较大者，
+     * 偏旧的快照最多在下一次写回刷新前生效
+     *
+     * @param knownViews 文章id -> 已知的已写回阅读量，值为空视为 0
+     * @return 文章id -> 当前阅读量
+     */
+    public Map<Long, Long> currentViews(Map<Long, Long> knownViews) {
+        Map<Long, Long> result = new HashMap<>(knownViews.size() * 2);
+        knownViews.forEach((articleId, known) -> {
+            long base = persisted.merge(articleId, known == null ? 0L : known, Math::max);
+            LongAdder adder = pending.get(articleId);
+            result.put(articleId, adder == null ? base : base + adder.sum());
+        });
+        return result;
+    }
+
+    /**
+     * 定时把聚合后的增量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${blog.article.view-flush-interval:10000}")
+    public void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((articleId, adder) -> {
+            //sumThenReset 逐个 cell 原子清零，并发的累加要么计入本次要么留到下次
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(articleId, delta);
+            } else {
+                //两次写回之间没有阅读的文章移出，避免计数器随看过的文章数无限增长
+                pending.computeIfPresent(articleId, (key, current) -> current == adder && current.sum() == 0 ? null : current);
+            }
+        });
+        if (!deltas.isEmpty()) {
+            try {
+                articleRepository.incrementViewCounts(deltas);
+                contentVersions.bump(ContentVersions.ARTICLE_STATS);
+                articleTrending.record(deltas);
+            } catch (Exception e) {
+                //写回失败则把增量还回去，等下次再写
+                deltas.forEach((articleId, delta) -> pending.computeIfAbsent(articleId, key -> new LongAdder())
+                        .add(delta));
+                log.error("文章阅读量写回失败，待写回文章数：{}", deltas.size(), e);
+            }
+        }
+        refreshPersisted();
+    }
+
+    /**
+     * 按写回后的数据库刷新已写回的阅读量，已移出计数器的文章一并移出，下次阅读时重新加载
+     */
+    private void refreshPersisted() {
+        persisted.keySet()
+                .retainAll(pending.keySet());
+        if (persisted.isEmpty()) {
+            return;
+        }
+        try {
+            persisted.putAll(articleRepository.fetchViewCounts(List.copyOf(persisted.keySet())));
+        } catch (Exception e) {
+            log.warn("刷新文章阅读量失败，文章数：{}", persisted.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+}
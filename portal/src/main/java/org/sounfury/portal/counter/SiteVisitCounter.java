@@ -0,0 +1,122 @@
+package org.sounfury.portal.counter;
+
+import cn.hutool.extra.servlet.JakartaServletUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RHyperLogLog;
+import org.sounfury.core.constant.CacheNames;
+import org.sounfury.portal.repository.SiteInfoPortalRepository;
+import org.sounfury.utils.CacheUtils;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.sounfury.core.constant.RedisKeyConstant.SITE_INFO;
+import static org.sounfury.core.constant.RedisKeyConstant.SITE_UV;
+
+/**
+ * 站点访问量计数器
+ * 访问时只在内存中累加，定时把增量写回 site_info.total_visits，写回后清掉站点信息缓存
+ * 可选：按天用 HyperLogLog 统计独立访客
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SiteVisitCounter {
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final SiteInfoPortalRepository siteInfoRepository;
+
+    private final LongAdder pending = new LongAdder();
+
+    @Value("${blog.site.unique-visitor-enabled:false}")
+    private boolean uniqueVisitorEnabled;
+
+    /**
+     * 记录一次访问，访客取当前请求的客户端IP
+     */
+    public void increment() {
+        increment(currentVisitor());
+    }
+
+    /**
+     * 记录一次访问，用于不在请求线程中执行的场景，访客由调用方在请求线程中取好传入
+     *
+     * @param visitor 访客标识（客户端IP），为空时不计入独立访客
+     */
+    public void increment(String visitor) {
+        pending.increment();
+        if (uniqueVisitorEnabled) {
+            if (visitor != null) {
+                //异步写入，不阻塞请求
+                RHyperLogLog<String> todayVisitors = dailyVisitors(LocalDate.now());
+                todayVisitors.addAsync(visitor);
+                todayVisitors.expireAsync(Duration.ofDays(2));
+            }
+        }
+    }
+
+    /**
+     * 数据库中的访问量加上尚未写回的增量
+     */
+    public long currentVisits(Long persistedVisits) {
+        long base = persistedVisits == null ? 0L : persistedVisits;
+        return base + pending.sum();
+    }
+
+    /**
+     * 某天的独立访客数，未开启时返回 null
+     */
+    public Long uniqueVisitors(LocalDate day) {
+        if (!uniqueVisitorEnabled) {
+            return null;
+        }
+        return dailyVisitors(day).count();
+    }
+
+    @Scheduled(fixedDelayString = "${blog.site.visit-flush-interval:10000}")
+    public void flush() {
+        long delta = pending.sumThenReset();
+        if (delta == 0) {
+            return;
+        }
+        try {
+            siteInfoRepository.addVisits(delta);
+            CacheUtils.evict(CacheNames.SITE_INFO, SITE_INFO);
+        } catch (Exception e) {
+            pending.add(delta);
+            log.error("站点访问量写回失败，待写回：{}", delta, e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    private RHyperLogLog<String> dailyVisitors(LocalDate day) {
+        return RedisUtils.getClient()
+                .getHyperLogLog(SITE_UV + day.format(DAY_FORMATTER));
+    }
+
+    /**
+     * 当前请求的访客标识（客户端IP），不在请求线程中时为 null
+     */
+    public static String currentVisitor() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        return JakartaServletUtil.getClientIP(request);
+    }
+}
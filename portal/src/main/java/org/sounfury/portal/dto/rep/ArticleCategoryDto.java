@@ -2,12 +2,14 @@ package org.sounfury.portal.dto.rep;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * 只获得子分类
  */
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class ArticleCategoryDto {
     private Long id;
     private String name;
@@ -0,0 +1,28 @@
+package org.sounfury.portal.dto.rep;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 全文检索结果
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArticleSearchRep {
+
+    private PageArticleRep article;
+
+    /**
+     * 高亮后的标题，已转义，命中词用 em 标签包裹
+     */
+    private String titleHighlight;
+
+    /**
+     * 正文命中片段，已转义并高亮
+     */
+    private String snippet;
+
+    private Double score;
+}
@@ -3,11 +3,11 @@ package org.sounfury.portal.dto.rep;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.sounfury.blog.jooq.tables.records.CommentRecord;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Data
 @AllArgsConstructor
@@ -22,5 +22,19 @@ public class CommentTreeNode {
     private LocalDateTime createTime; // 创建时间
     private Byte enableStatus;    //是否启用
     private List<CommentTreeNode> children = new ArrayList<>(); // 子评论和子评论的子评论
+    private Long replyCount; // 楼层内回复总数，只有顶层评论有
+    private String repliesCursor; // 加载更多回复的游标，为空表示已全部展示
 
+    public static CommentTreeNode from(CommentRecord record) {
+        CommentTreeNode node = new CommentTreeNode();
+        node.setId(record.getId());
+        node.setUserId(record.getUserId());
+        node.setParentId(record.getParentId());
+        node.setTopCommentId(record.getTopCommentId());
+        node.setContent(record.getContent());
+        node.setLikeCount(record.getLikeCount());
+        node.setCreateTime(record.getCreateTime());
+        node.setEnableStatus(record.getEnableStatus());
+        return node;
+    }
 }
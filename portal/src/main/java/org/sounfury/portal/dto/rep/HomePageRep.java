@@ -0,0 +1,28 @@
+package org.sounfury.portal.dto.rep;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.sounfury.jooq.page.PageRepDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 首页聚合数据
+ * 各部分独立加载，超时或失败的部分为空，并记录在 failedParts 中，前端可单独补请求
+ */
+@Data
+@NoArgsConstructor
+public class HomePageRep {
+    private SiteInfoRep siteInfo;
+    private SiteCreatorInfoRep creatorInfo;
+    private InfoCountRep count;
+    private List<CategoryTreeNode> categories;
+    private List<TagsQueryRep> tags;
+    private List<HistoryCount> historyCount;
+    private PageRepDto<List<PageArticleRep>> articles;
+    /**
+     * 未能加载的部分
+     */
+    private List<String> failedParts = new ArrayList<>();
+}
@@ -3,6 +3,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 import org.jooq.SelectField;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import static org.sounfury.blog.jooq.Tables.*;
 @AllArgsConstructor
+@NoArgsConstructor
 @Builder
 @Data
 public class PageArticleRep {
@@ -30,6 +32,8 @@ public class PageArticleRep {
 
     private Long viewCount;
 
+    private Long commentCount;
+
     private List<TagPortalDto> tags;
 
     private ArticleCategoryDto category;
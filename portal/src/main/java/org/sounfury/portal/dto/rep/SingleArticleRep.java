@@ -3,6 +3,7 @@ package org.sounfury.portal.dto.rep;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.sounfury.blog.jooq.tables.pojos.Article;
 
 import java.time.LocalDateTime;
@@ -10,6 +11,7 @@ import java.util.List;
 
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class SingleArticleRep {
     private Long id;
@@ -26,6 +28,9 @@ public class SingleArticleRep {
 
     private Byte isTop;
 
+    /**
+     * 生成响应时的阅读量，不计入详情的 ETag，条件请求命中时可能比实际值小
+     */
     private Long viewCount;
 
     private String createBy;
@@ -38,6 +43,11 @@ public class SingleArticleRep {
 
     List<TagPortalDto> tags;
 
+    /**
+     * 相关文章
+     */
+    private List<PageArticleRep> related;
+
     public SingleArticleRep(Article article) {
         this.id = article.getId();
         this.title = article.getTitle();
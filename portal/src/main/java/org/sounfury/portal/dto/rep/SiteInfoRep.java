@@ -15,6 +15,8 @@ public class SiteInfoRep {
     private Long articleCount;
     private Long totalWords;
     private Long totalVisits;
+    //今日独立访客，未开启统计时为空
+    private Long todayVisitors;
     //精确到s
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDateTime lastUpdateTime;
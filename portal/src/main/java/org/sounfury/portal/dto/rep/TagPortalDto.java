@@ -2,9 +2,11 @@ package org.sounfury.portal.dto.rep;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.jooq.types.UInteger;
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Data
 public class TagPortalDto {
     private Long id;
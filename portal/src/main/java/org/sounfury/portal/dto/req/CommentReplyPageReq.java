@@ -0,0 +1,16 @@
+package org.sounfury.portal.dto.req;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.sounfury.jooq.page.CursorPageReqDto;
+
+/**
+ * 楼层回复游标分页，cursor 为顶层评论返回的 repliesCursor 或上一页的 nextCursor
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class CommentReplyPageReq extends CursorPageReqDto {
+    @NotNull(message = "顶层评论id不能为空")
+    private Long topCommentId;
+}
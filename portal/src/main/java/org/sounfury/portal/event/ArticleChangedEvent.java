@@ -0,0 +1,53 @@
+package org.sounfury.portal.event;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 后台新增、更新或删除文章，在写入文章的事务内发布
+ * 站点统计在提交前随事务更新；卡片、详情缓存、搜索索引、归档和标签统计、相关文章索引在提交后各自监听处理，
+ * 一个监听失败不影响其他监听；内容版本在所有提交后的处理之后递增
+ *
+ * @param articleId  文章id
+ * @param before     写入前的文章，新增时为空
+ * @param after      写入后的文章，删除时为空
+ * @param beforeTags 写入前关联的标签id
+ * @param afterTags  写入后关联的标签id
+ */
+public record ArticleChangedEvent(Long articleId, Article before, Article after, Set<Long> beforeTags,
+                                  Set<Long> afterTags) {
+
+    public static ArticleChangedEvent added(Long articleId, Article article, Set<Long> tags) {
+        return new ArticleChangedEvent(articleId, null, article, Set.of(), tags);
+    }
+
+    /**
+     * 更新文章，changes 中为空的字段视为未修改
+     */
+    public static ArticleChangedEvent updated(Article before, Article changes, Set<Long> beforeTags,
+                                              Set<Long> afterTags) {
+        Article after = new Article(before);
+        BeanUtil.copyProperties(changes, after, CopyOptions.create()
+                .ignoreNullValue());
+        return new ArticleChangedEvent(before.getId(), before, after, beforeTags, afterTags);
+    }
+
+    public static ArticleChangedEvent deleted(Article before, Set<Long> tags) {
+        return new ArticleChangedEvent(before.getId(), before, null, tags, Set.of());
+    }
+
+    /**
+     * 标签、分类或发布状态是否变化，只有这些变化才影响相关文章
+     */
+    public boolean affectsRelated() {
+        return before == null
+                || after == null
+                || !beforeTags.equals(afterTags)
+                || !Objects.equals(before.getCategoryId(), after.getCategoryId())
+                || !Objects.equals(before.getEnableStatus(), after.getEnableStatus());
+    }
+}
@@ -0,0 +1,322 @@
+package org.sounfury.portal.recommend;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static org.sounfury.core.constant.RedisKeyConstant.RELATED_ARTICLE_TOPIC;
+
+/**
+ * 相关文章索引（进程内）
+ * 已发布文章按标签的 TF-IDF 余弦相似度打分（越少见的标签权重越高），同分类的文章额外加分，
+ * 每篇文章预先算好前 K 篇相关文章，详情页直接从内存取。
+ * 启动后并行全量计算并定时重算；文章写入后通过 Redis topic 通知各节点，只重算与该文章共享标签或分类的文章
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RelatedArticleIndex {
+
+    /**
+     * 同分类加分，标签完全相同的余弦相似度为 1
+     */
+    private static final double CATEGORY_WEIGHT = 0.2;
+
+    private final ArticlePortalRepository articleRepository;
+    private final TagPortalRepository tagRepository;
+    private final ContentVersions contentVersions;
+
+    /**
+     * 每篇文章保留的相关文章数
+     */
+    @Value("${blog.article.related-size:6}")
+    private int topK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = Index.empty();
+
+    private volatile boolean reindexing;
+
+    /**
+     * 全量计算期间收到的增量变更，计算完成后补做
+     */
+    private final Set<Long> changedDuringReindex = ConcurrentHashMap.newKeySet();
+
+    private record Doc(Long id, Long categoryId, Set<Long> tagIds) {
+    }
+
+    /**
+     * @param docs             文章id -> 文章
+     * @param tagPostings      标签id -> 文章id
+     * @param categoryPostings 分类id -> 文章id
+     * @param neighbors        文章id -> 相关文章id，按相关度从高到低
+     */
+    private record Index(Map<Long, Doc> docs, Map<Long, Set<Long>> tagPostings,
+                         Map<Long, Set<Long>> categoryPostings, Map<Long, List<Long>> neighbors) {
+
+        static Index empty() {
+            return new Index(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+        }
+
+        void add(Doc doc) {
+            docs.put(doc.id(), doc);
+            doc.tagIds()
+                    .forEach(tagId -> tagPostings.computeIfAbsent(tagId, key -> new HashSet<>())
+                            .add(doc.id()));
+            if (doc.categoryId() != null) {
+                categoryPostings.computeIfAbsent(doc.categoryId(), key -> new HashSet<>())
+                        .add(doc.id());
+            }
+        }
+
+        void remove(Doc doc) {
+            docs.remove(doc.id());
+            neighbors.remove(doc.id());
+            doc.tagIds()
+                    .forEach(tagId -> removePosting(tagPostings, tagId, doc.id()));
+            if (doc.categoryId() != null) {
+                removePosting(categoryPostings, doc.categoryId(), doc.id());
+            }
+        }
+
+        /**
+         * 与文章共享标签或分类的文章
+         */
+        Set<Long> candidates(Doc doc) {
+            Set<Long> candidates = new HashSet<>();
+            doc.tagIds()
+                    .forEach(tagId -> candidates.addAll(tagPostings.getOrDefault(tagId, Collections.emptySet())));
+            if (doc.categoryId() != null) {
+                candidates.addAll(categoryPostings.getOrDefault(doc.categoryId(), Collections.emptySet()));
+            }
+            candidates.remove(doc.id());
+            return candidates;
+        }
+
+        private static void removePosting(Map<Long, Set<Long>> postings, Long key, Long articleId) {
+            Set<Long> posting = postings.get(key);
+            if (posting != null) {
+                posting.remove(articleId);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(RELATED_ARTICLE_TOPIC, Long.class, this::reindexArticle);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        Thread.ofVirtual()
+                .name("related-article-reindex")
+                .start(this::reindex);
+    }
+
+    /**
+     * 文章的标签、分类或发布状态变化时，事务提交后通知所有节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (!event.affectsRelated()) {
+            return;
+        }
+        Long articleId = event.articleId();
+        try {
+            RedisUtils.publish(RELATED_ARTICLE_TOPIC, articleId);
+        } catch (Exception e) {
+            //通知失败时至少更新本节点，其他节点要等下次全量构建才会修正
+            log.warn("相关文章索引变更通知失败，文章id：{}", articleId, e);
+            reindexArticle(articleId);
+        }
+    }
+
+    /**
+     * 相关文章id，按相关度从高到低，索引未就绪或没有相关文章时为空
+     */
+    public List<Long> related(Long articleId) {
+        lock.readLock()
+                .lock();
+        try {
+            return index.neighbors()
+                    .getOrDefault(articleId, Collections.emptyList());
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * 全量计算，增量更新时 IDF 不随之变化，定时重算修正
+     */
+    @Scheduled(fixedDelayString = "${blog.article.related-rebuild-interval:3600000}",
+            initialDelayString = "${blog.article.related-rebuild-interval:3600000}")
+    public void reindex() {
+        reindexing = true;
+        changedDuringReindex.clear();
+        try {
+            Map<Long, Long> categories = articleRepository.fetchPublishedCategoryIds(null);
+            Map<Long, List<Long>> tags = tagRepository.fetchTagIdsByArticleIds(null);
+            Index newIndex = Index.empty();
+            categories.forEach((articleId, categoryId) -> newIndex.add(new Doc(articleId, categoryId,
+                    Set.copyOf(tags.getOrDefault(articleId, Collections.emptyList())))));
+
+            //各文章的计算只读取文档和倒排表，互不依赖，可以并行
+            Map<Long, List<Long>> neighbors = newIndex.docs()
+                    .keySet()
+                    .parallelStream()
+                    .collect(Collectors.toConcurrentMap(articleId -> articleId,
+                            articleId -> computeNeighbors(newIndex, articleId)));
+            newIndex.neighbors()
+                    .putAll(neighbors);
+
+            lock.writeLock()
+                    .lock();
+            try {
+                index = newIndex;
+            } finally {
+                lock.writeLock()
+                        .unlock();
+            }
+            contentVersions.localStateChanged(ContentVersions.ARTICLES);
+            log.info("相关文章索引构建完成，共 {} 篇，{} 个标签", newIndex.docs()
+                    .size(), newIndex.tagPostings()
+                    .size());
+        } catch (Exception e) {
+            log.error("相关文章索引构建失败", e);
+        } finally {
+            reindexing = false;
+        }
+        changedDuringReindex.forEach(this::reindexArticle);
+        changedDuringReindex.clear();
+    }
+
+    /**
+     * 增量更新单篇文章：替换其标签和分类，重算它本身以及变更前后与它共享标签或分类的文章
+     */
+    public void reindexArticle(Long articleId) {
+        if (reindexing) {
+            changedDuringReindex.add(articleId);
+        }
+        try {
+            //已删除或未发布的文章查不到分类记录，移出索引
+            Map<Long, Long> categories = articleRepository.fetchPublishedCategoryIds(List.of(articleId));
+            Doc doc = null;
+            if (categories.containsKey(articleId)) {
+                List<Long> tagIds = tagRepository.fetchTagIdsByArticleIds(List.of(articleId))
+                        .getOrDefault(articleId, Collections.emptyList());
+                doc = new Doc(articleId, categories.get(articleId), Set.copyOf(tagIds));
+            }
+
+            lock.writeLock()
+                    .lock();
+            try {
+                Set<Long> affected = new HashSet<>();
+                Doc old = index.docs()
+                        .get(articleId);
+                if (old != null) {
+                    affected.addAll(index.candidates(old));
+                    index.remove(old);
+                }
+                if (doc != null) {
+                    index.add(doc);
+                    affected.addAll(index.candidates(doc));
+                    affected.add(articleId);
+                }
+                affected.forEach(id -> index.neighbors()
+                        .put(id, computeNeighbors(index, id)));
+            } finally {
+                lock.writeLock()
+                        .unlock();
+            }
+            contentVersions.localStateChanged(ContentVersions.ARTICLES);
+        } catch (Exception e) {
+            log.error("相关文章索引更新失败，文章id：{}", articleId, e);
+        }
+    }
+
+    private List<Long> computeNeighbors(Index index, Long articleId) {
+        Doc doc = index.docs()
+                .get(articleId);
+        if (doc == null) {
+            return Collections.emptyList();
+        }
+        int documentCount = index.docs()
+                .size();
+        Map<Long, Double> sharedWeights = new HashMap<>();
+        for (Long tagId : doc.tagIds()) {
+            Set<Long> posting = index.tagPostings()
+                    .get(tagId);
+            double weight = Math.pow(idf(documentCount, posting.size()), 2);
+            posting.forEach(other -> sharedWeights.merge(other, weight, Double::sum));
+        }
+        index.candidates(doc)
+                .forEach(other -> sharedWeights.putIfAbsent(other, 0.0));
+        sharedWeights.remove(articleId);
+
+        double norm = norm(index, doc, documentCount);
+        Map<Long, Double> scores = new HashMap<>(sharedWeights.size());
+        sharedWeights.forEach((otherId, shared) -> {
+            Doc other = index.docs()
+                    .get(otherId);
+            double otherNorm = norm(index, other, documentCount);
+            double score = norm > 0 && otherNorm > 0 ? shared / (norm * otherNorm) : 0;
+            if (doc.categoryId() != null && doc.categoryId()
+                    .equals(other.categoryId())) {
+                score += CATEGORY_WEIGHT;
+            }
+            scores.put(otherId, score);
+        });
+
+        //同分时新文章优先
+        return scores.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue()
+                        .reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(topK)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static double norm(Index index, Doc doc, int documentCount) {
+        double sum = 0;
+        for (Long tagId : doc.tagIds()) {
+            sum += Math.pow(idf(documentCount, index.tagPostings()
+                    .get(tagId)
+                    .size()), 2);
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1.0 + (double) documentCount / documentFrequency);
+    }
+}
@@ -2,23 +2,31 @@ package org.sounfury.portal.repository;
 
 import org.jooq.*;
 import org.jooq.Record;
+import org.jooq.impl.DSL;
 
 import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
 import org.sounfury.jooq.page.utils.JooqPageHelper;
-import org.sounfury.portal.dto.rep.HistoryCount;
 import org.sounfury.portal.dto.rep.PageArticleRep;
 import org.sounfury.portal.dto.req.CategoryPageReq;
-import org.sounfury.portal.dto.req.HistoryPageArticlesReq;
 import org.sounfury.portal.dto.req.TagPageReq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.jooq.page.PageReqDto.CountMode.CACHED;
 import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
 import static org.sounfury.blog.jooq.Tables.*;
 import org.sounfury.blog.jooq.tables.daos.ArticleDao;
@@ -33,6 +41,7 @@ public class ArticlePortalRepository extends org.sounfury.blog.jooq.tables.daos.
 
     /**
      * 分页查询文章
+     * 门户列表默认使用缓存的总数，文章写操作时失效
      */
     public PageRepDto<List<PageArticleRep>> pageQueryArticle(PageReqDto pageReqDto) {
         DSLContext dsl = configuration().dsl();
@@ -40,7 +49,22 @@ public class ArticlePortalRepository extends org.sounfury.blog.jooq.tables.daos.
                         .from(ARTICLE)
                         .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
                         .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE)),
+                pageReqDto.defaultCountMode(CACHED),
+                dsl,
+                PageArticleRep.MAPPER);
+    }
+
+    /**
+     * 游标分页查询文章，按排序字段 + 文章id seek，不查总数
+     */
+    public CursorPageRepDto<List<PageArticleRep>> cursorQueryArticle(CursorPageReqDto pageReqDto) {
+        DSLContext dsl = configuration().dsl();
+        return JooqPageHelper.getCursorPage(ctx().select(PageArticleRep.ARTICLE_FIELDS)
+                        .from(ARTICLE)
+                        .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                        .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE)),
                 pageReqDto,
+                ARTICLE.ID,
                 dsl,
                 PageArticleRep.MAPPER);
     }
@@ -55,7 +79,7 @@ public class ArticlePortalRepository extends org.sounfury.blog.jooq.tables.daos.
                         .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
                         .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
                         .and(ARTICLE.CATEGORY_ID.eq(pageReqDto.getCategoryId())),
-                pageReqDto,
+                pageReqDto.defaultCountMode(CACHED),
                 dsl,
                 PageArticleRep.MAPPER);
     }
@@ -79,67 +103,145 @@ public class ArticlePortalRepository extends org.sounfury.blog.jooq.tables.daos.
                                         .on(ARTICLE.ID.eq(ARTICLE_TAG.ARTICLE_ID))
                                         .where(ARTICLE_TAG.TAG_ID.eq(pageReqDto.getTagId()))
                         )),
-                pageReqDto,
+                pageReqDto.defaultCountMode(CACHED),
                 dsl,
                 PageArticleRep.MAPPER);
     }
 
     /**
-     * 分页查询历史文章
-     *
-     * @param historyPageArticlesReq
-     * @return
+     * 分页查询某个时间段 [start, end) 内的已发布文章，总数由归档统计提供，不再执行 count
      */
-    public PageRepDto<List<PageArticleRep>> pageQueryHistoryArticleByYear(
-            HistoryPageArticlesReq historyPageArticlesReq) {
+    public PageRepDto<List<PageArticleRep>> pageQueryArticleByCreateTime(
+            PageReqDto pageReqDto, LocalDateTime start, LocalDateTime end, long total) {
         SelectConditionStep<Record> select = ctx().select(PageArticleRep.ARTICLE_FIELDS)
                 .from(ARTICLE)
                 .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
                 .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
-                .and(ARTICLE.CREATE_TIME
-                        .between(historyPageArticlesReq.getHistoryTime(),
-                                historyPageArticlesReq.getHistoryTime()
-                                        .plusYears(1)));
+                .and(ARTICLE.CREATE_TIME.ge(start))
+                .and(ARTICLE.CREATE_TIME.lt(end));
 
-        DSLContext dsl = configuration().dsl();
         return JooqPageHelper.getPage(
                 select,
-                historyPageArticlesReq,
-                dsl,
+                pageReqDto,
+                total,
                 PageArticleRep.MAPPER);
     }
 
-    public PageRepDto<List<PageArticleRep>> pageQueryHistoryArticleByMonth(
-            HistoryPageArticlesReq historyPageArticlesReq) {
-        SelectConditionStep<Record> select = ctx().select(PageArticleRep.ARTICLE_FIELDS)
+    /**
+     * 按月统计已发布文章数量
+     */
+    public Map<YearMonth, Long> countPublishedByMonth() {
+        Field<Integer> year = DSL.year(ARTICLE.CREATE_TIME);
+        Field<Integer> month = DSL.month(ARTICLE.CREATE_TIME);
+        return ctx().select(year, month, DSL.count())
                 .from(ARTICLE)
                 .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
                 .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
-                .and(ARTICLE.CREATE_TIME
-                        .between(historyPageArticlesReq.getHistoryTime(),
-                                historyPageArticlesReq.getHistoryTime()
-                                        .plusMonths(1)));
+                .groupBy(year, month)
+                .fetchMap(record -> YearMonth.of(record.value1(), record.value2()),
+                        record -> record.value3()
+                                .longValue());
+    }
 
-        DSLContext dsl = configuration().dsl();
-        return JooqPageHelper.getPage(
-                select,
-                historyPageArticlesReq,
-                dsl,
-                PageArticleRep.MAPPER);
+    /**
+     * 批量累加文章阅读量，一次 batch 写回
+     * 显式保留 update_time，阅读量变化不算文章更新
+     */
+    public void incrementViewCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<UpdateConditionStep<?>> updates = deltas.entrySet()
+                .stream()
+                .map(entry -> ctx().update(ARTICLE)
+                        .set(ARTICLE.VIEW_COUNT, DSL.coalesce(ARTICLE.VIEW_COUNT, DSL.val(0L))
+                                .add(entry.getValue()))
+                        .set(ARTICLE.UPDATE_TIME, ARTICLE.UPDATE_TIME)
+                        .where(ARTICLE.ID.eq(entry.getKey())))
+                .collect(Collectors.toList());
+        ctx().batch(updates)
+                .execute();
     }
 
+    /**
+     * 按id批量查询已发布文章的列表字段
+     */
+    public List<PageArticleRep> fetchPublishedByIds(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ctx().select(PageArticleRep.ARTICLE_FIELDS)
+                .from(ARTICLE)
+                .where(ARTICLE.ID.in(articleIds))
+                .and(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .fetch(PageArticleRep.MAPPER);
+    }
+
+    /**
+     * 按id批量查询已发布文章的搜索字段（标题、摘要、正文）
+     */
+    public List<Article> fetchSearchDocuments(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ctx().select(ARTICLE.ID, ARTICLE.TITLE, ARTICLE.SUMMARY, ARTICLE.CONTENT)
+                .from(ARTICLE)
+                .where(ARTICLE.ID.in(articleIds))
+                .and(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .fetchInto(Article.class);
+    }
+
+    /**
+     * 查询所有已发布文章的id
+     */
+    public List<Long> fetchPublishedIds() {
+        return ctx().select(ARTICLE.ID)
+                .from(ARTICLE)
+                .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .fetchInto(Long.class);
+    }
+
+    /**
+     * 查询已发布文章的分类，文章id -> 分类id；articleIds 为 null 时查询全部已发布文章
+     */
+    public Map<Long, Long> fetchPublishedCategoryIds(Collection<Long> articleIds) {
+        if (articleIds != null && articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ctx().select(ARTICLE.ID, ARTICLE.CATEGORY_ID)
+                .from(ARTICLE)
+                .where(articleIds == null ? DSL.noCondition() : ARTICLE.ID.in(articleIds))
+                .and(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .fetchMap(ARTICLE.ID, ARTICLE.CATEGORY_ID);
+    }
 
-    public List<HistoryCount> historyArticleCount() {
-        String sql = "SELECT DATE_FORMAT(create_time, '%Y-%m') as date, " +
-                "COUNT(*) as count " +
-                "FROM blog.article " +
-                "WHERE del_flag = ? " +
-                "GROUP BY DATE_FORMAT(create_time, '%Y-%m') " +
-                "ORDER BY date DESC " +
-                "LIMIT ?";
+    /**
+     * 批量查询文章已写回数据库的阅读量，为空时视为 0，不存在的文章不在结果中
+     */
+    public Map<Long, Long> fetchViewCounts(Collection<Long> articleIds) {
+        Field<Long> viewCount = DSL.coalesce(ARTICLE.VIEW_COUNT, 0L);
+        return ctx().select(ARTICLE.ID, viewCount)
+                .from(ARTICLE)
+                .where(ARTICLE.ID.in(articleIds))
+                .fetchMap(ARTICLE.ID, viewCount);
+    }
 
-        return ctx().resultQuery(sql, NOT_DEL_FLAG, 5)
-                    .fetchInto(HistoryCount.class);
+    /**
+     * 查询某些分类下所有未删除文章的id
+     */
+    public List<Long> fetchIdsByCategoryIds(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ctx().select(ARTICLE.ID)
+                .from(ARTICLE)
+                .where(ARTICLE.CATEGORY_ID.in(categoryIds))
+                .and(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .fetchInto(Long.class);
     }
 
     /**
@@ -2,9 +2,13 @@ package org.sounfury.portal.repository;
 
 import org.jooq.Configuration;
 
+import org.sounfury.portal.dto.rep.ArticleCategoryDto;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
 import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
@@ -31,5 +35,26 @@ public class CategoryPortalRepository extends org.sounfury.blog.jooq.tables.daos
 
     }
 
+    /**
+     * 获取所有未删除的分类（含停用），用于构建分类树快照
+     */
+    public List<org.sounfury.blog.jooq.tables.records.CategoryRecord> getAllUndeletedCategories() {
+        return ctx().selectFrom(CATEGORY)
+                .where(CATEGORY.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .fetch();
+    }
+
+    /**
+     * 根据分类id批量查询分类，一次 IN 查询返回 id -> 分类 字典
+     */
+    public Map<Long, ArticleCategoryDto> fetchCategoryDictByIds(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ctx().select(CATEGORY.ID, CATEGORY.NAME)
+                .from(CATEGORY)
+                .where(CATEGORY.ID.in(categoryIds))
+                .fetchMap(CATEGORY.ID, record -> new ArticleCategoryDto(record.get(CATEGORY.ID), record.get(CATEGORY.NAME)));
+    }
 
 }
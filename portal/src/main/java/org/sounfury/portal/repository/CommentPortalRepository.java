@@ -2,16 +2,25 @@ package org.sounfury.portal.repository;
 
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.SelectConditionStep;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.utils.JooqPageHelper;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
 import org.springframework.stereotype.Repository;
 import static org.sounfury.blog.jooq.Tables.*;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
 import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+import static org.sounfury.jooq.page.PageReqDto.CountMode.CACHED;
 
 @Repository
 public class CommentPortalRepository extends org.sounfury.blog.jooq.tables.daos.CommentDao {
@@ -32,7 +41,7 @@ public class CommentPortalRepository extends org.sounfury.blog.jooq.tables.daos.
                 .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE));
 
         DSLContext dsl = configuration().dsl();
-        return JooqPageHelper.getPage(and, req, dsl);
+        return JooqPageHelper.getPage(and, req.defaultCountMode(CACHED), dsl);
     }
 
 
@@ -49,7 +58,7 @@ public class CommentPortalRepository extends org.sounfury.blog.jooq.tables.daos.
                 .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE));
 
         DSLContext dsl = configuration().dsl();
-        return JooqPageHelper.getPage(and, req, dsl);
+        return JooqPageHelper.getPage(and, req.defaultCountMode(CACHED), dsl);
     }
 
     /**
@@ -63,4 +72,80 @@ public class CommentPortalRepository extends org.sounfury.blog.jooq.tables.daos.
                 .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE))
                 .fetch();
     }
+
+    /**
+     * 一次查询多个楼层的前 limit 条回复，按时间正序
+     */
+    public List<org.sounfury.blog.jooq.tables.records.CommentRecord> fetchRepliesOfThreads(Collection<Long> topCommentIds, int limit) {
+        if (topCommentIds == null || topCommentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Field<Integer> rowNumber = DSL.rowNumber()
+                .over(DSL.partitionBy(COMMENT.TOP_COMMENT_ID)
+                        .orderBy(COMMENT.CREATE_TIME, COMMENT.ID))
+                .as("rn");
+        Table<?> replies = ctx().select(COMMENT.asterisk(), rowNumber)
+                .from(COMMENT)
+                .where(COMMENT.TOP_COMMENT_ID.in(topCommentIds))
+                .and(COMMENT.PARENT_ID.isNotNull())
+                .and(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .asTable("replies");
+        return ctx().select(replies.fields(COMMENT.fields()))
+                .from(replies)
+                .where(replies.field(rowNumber)
+                        .le(limit))
+                .orderBy(replies.field(COMMENT.CREATE_TIME), replies.field(COMMENT.ID))
+                .fetchInto(COMMENT);
+    }
+
+    /**
+     * 统计多个楼层的回复数
+     */
+    public Map<Long, Integer> countRepliesOfThreads(Collection<Long> topCommentIds) {
+        if (topCommentIds == null || topCommentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Field<Integer> count = DSL.count();
+        return ctx().select(COMMENT.TOP_COMMENT_ID, count)
+                .from(COMMENT)
+                .where(COMMENT.TOP_COMMENT_ID.in(topCommentIds))
+                .and(COMMENT.PARENT_ID.isNotNull())
+                .and(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .groupBy(COMMENT.TOP_COMMENT_ID)
+                .fetchMap(COMMENT.TOP_COMMENT_ID, count);
+    }
+
+    /**
+     * 游标分页查询某个楼层的回复，按时间正序
+     */
+    public CursorPageRepDto<List<org.sounfury.blog.jooq.tables.records.CommentRecord>> cursorReplies(Long topCommentId, CursorPageReqDto req) {
+        SelectConditionStep<org.sounfury.blog.jooq.tables.records.CommentRecord> and = ctx()
+                .selectFrom(COMMENT)
+                .where(COMMENT.TOP_COMMENT_ID.eq(topCommentId))
+                .and(COMMENT.PARENT_ID.isNotNull())
+                .and(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE));
+
+        DSLContext dsl = configuration().dsl();
+        return JooqPageHelper.getCursorPage(and, req, COMMENT.ID, dsl, record -> record);
+    }
+
+    /**
+     * 统计多篇文章的评论数（含回复）
+     */
+    public Map<Long, Integer> countByArticleIds(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Field<Integer> count = DSL.count();
+        return ctx().select(COMMENT.ARTICLE_ID, count)
+                .from(COMMENT)
+                .where(COMMENT.ARTICLE_ID.in(articleIds))
+                .and(COMMENT.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(COMMENT.ENABLE_STATUS.eq(STATUS_ENABLE))
+                .groupBy(COMMENT.ARTICLE_ID)
+                .fetchMap(COMMENT.ARTICLE_ID, count);
+    }
 }
@@ -2,10 +2,13 @@ package org.sounfury.portal.repository;
 
 import org.jooq.Configuration;
 import org.jooq.impl.DSL;
-import org.sounfury.portal.dto.rep.InfoCountRep;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 import static org.jooq.impl.DSL.coalesce;
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
 import static org.sounfury.blog.jooq.Tables.*;
 
 @Repository
@@ -14,31 +17,42 @@ public class SiteInfoPortalRepository extends org.sounfury.blog.jooq.tables.daos
         super(configuration);
     }
 
-    public InfoCountRep countInfo() {
-        return ctx().select(
-                ctx().selectCount().from(ARTICLE).asField("article_count"),
-                ctx().selectCount().from(TAG).asField("tags_count"),
-                ctx().selectCount().from(CATEGORY).asField("category_count")
-        ).fetchOneInto(InfoCountRep.class);
-    }
-
-    public void statusArticleInfo(Long totalWords, Long articleCount) {
+    /**
+     * 按增量更新已发布文章数和总字数，随文章写入的事务提交
+     */
+    public void addArticleStats(long countDelta, long wordsDelta) {
         ctx().update(SITE_INFO)
-                .set(SITE_INFO.TOTAL_WORDS, SITE_INFO.TOTAL_WORDS.add(totalWords))
-                .set(SITE_INFO.ARTICLE_COUNT, articleCount)
+                .set(SITE_INFO.ARTICLE_COUNT, coalesce(SITE_INFO.ARTICLE_COUNT, DSL.val(0L)).add(countDelta))
+                .set(SITE_INFO.TOTAL_WORDS, coalesce(SITE_INFO.TOTAL_WORDS, DSL.val(0L)).add(wordsDelta))
                 .execute();
     }
 
-
-    public void statusUpdateArticleInfo(Long newTotalWords) {
+    /**
+     * 从文章表重新统计：已发布文章数，以及未删除文章的总字数
+     */
+    public void reconcileArticleStats() {
         ctx().update(SITE_INFO)
-                .set(SITE_INFO.TOTAL_WORDS, SITE_INFO.TOTAL_WORDS.add(newTotalWords))
+                .set(SITE_INFO.ARTICLE_COUNT, ctx().selectCount()
+                        .from(ARTICLE)
+                        .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                        .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
+                        .asField()
+                        .cast(Long.class))
+                .set(SITE_INFO.TOTAL_WORDS, ctx().select(coalesce(DSL.sum(DSL.charLength(ARTICLE.CONTENT)),
+                                DSL.val(BigDecimal.ZERO)))
+                        .from(ARTICLE)
+                        .where(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                        .asField()
+                        .cast(Long.class))
                 .execute();
     }
 
-    public void updateViewCount() {
+    /**
+     * 累加站点访问量，由访问计数器定时批量写回
+     */
+    public void addVisits(long delta) {
         ctx().update(SITE_INFO)
-             .set(SITE_INFO.TOTAL_VISITS, DSL.coalesce(SITE_INFO.TOTAL_VISITS, DSL.val(0L)).add(1L))
+             .set(SITE_INFO.TOTAL_VISITS, DSL.coalesce(SITE_INFO.TOTAL_VISITS, DSL.val(0L)).add(delta))
              .execute();
     }
 }
@@ -2,13 +2,19 @@ package org.sounfury.portal.repository;
 
 import org.jooq.Configuration;
 import org.jooq.impl.DSL;
+import org.sounfury.portal.dto.rep.TagPortalDto;
 import org.sounfury.portal.dto.rep.TagsQueryRep;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import static org.sounfury.blog.jooq.Tables.*;
+
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
 @Repository
 public class TagPortalRepository extends org.sounfury.blog.jooq.tables.daos.TagDao {
 
@@ -32,18 +38,53 @@ public class TagPortalRepository extends org.sounfury.blog.jooq.tables.daos.TagD
                 .fetchInto(org.sounfury.blog.jooq.tables.pojos.Tag.class);
     }
 
+    /**
+     * 批量查询多篇文章下的标签，一次关联查询，按文章id分组
+     */
+    public Map<Long, List<TagPortalDto>> fetchTagsByArticleIds(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ctx().selectDistinct(ARTICLE_TAG.ARTICLE_ID, TAG.ID, TAG.NAME)
+                .from(ARTICLE_TAG)
+                .join(TAG)
+                .on(TAG.ID.eq(ARTICLE_TAG.TAG_ID))
+                .where(ARTICLE_TAG.ARTICLE_ID.in(articleIds))
+                .and(TAG.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .fetchGroups(ARTICLE_TAG.ARTICLE_ID, record -> new TagPortalDto(record.get(TAG.ID), record.get(TAG.NAME)));
+    }
+
+    /**
+     * 查询文章下未删除标签的id，按文章id分组；articleIds 为 null 时查询全部文章
+     */
+    public Map<Long, List<Long>> fetchTagIdsByArticleIds(Collection<Long> articleIds) {
+        if (articleIds != null && articleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return ctx().selectDistinct(ARTICLE_TAG.ARTICLE_ID, ARTICLE_TAG.TAG_ID)
+                .from(ARTICLE_TAG)
+                .join(TAG)
+                .on(TAG.ID.eq(ARTICLE_TAG.TAG_ID))
+                .where(articleIds == null ? DSL.noCondition() : ARTICLE_TAG.ARTICLE_ID.in(articleIds))
+                .and(TAG.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .fetchGroups(ARTICLE_TAG.ARTICLE_ID, ARTICLE_TAG.TAG_ID);
+    }
 
     /**
-     * 查到所有标签并且对标签下文章数进行统计
+     * 统计每个标签下已发布文章的数量，没有文章的标签数量为 0
      */
-    public List<TagsQueryRep> fetchAllTag() {
-        return ctx().select(TAG.asterisk(), DSL.count(ARTICLE_TAG.ARTICLE_ID)
+    public List<TagsQueryRep> countPublishedArticlesByTag() {
+        return ctx().select(TAG.ID, TAG.NAME, DSL.countDistinct(ARTICLE.ID)
                         .as("article_count"))
                 .from(TAG)
                 .leftJoin(ARTICLE_TAG)
                 .on(TAG.ID.eq(ARTICLE_TAG.TAG_ID))
+                .leftJoin(ARTICLE)
+                .on(ARTICLE.ID.eq(ARTICLE_TAG.ARTICLE_ID))
+                .and(ARTICLE.DEL_FLAG.eq(NOT_DEL_FLAG))
+                .and(ARTICLE.ENABLE_STATUS.eq(STATUS_ENABLE))
                 .where(TAG.DEL_FLAG.eq(NOT_DEL_FLAG))
-                .groupBy(TAG.ID)
+                .groupBy(TAG.ID, TAG.NAME)
                 .fetchInto(TagsQueryRep.class);
     }
-}
\ No newline at end of file
+}
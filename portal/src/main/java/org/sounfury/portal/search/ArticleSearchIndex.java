@@ -0,0 +1,376 @@
+package org.sounfury.portal.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_SEARCH_TOPIC;
+
+/**
+ * 文章全文检索（进程内倒排索引）
+ * 索引已发布文章的标题、摘要和 Markdown 正文，按 BM25 打分，标题、摘要命中的权重更高；
+ * 启动后全量构建（失败时定时重试直到成功），文章写入后通过 Redis topic 通知各节点增量更新。
+ * 不依赖外部搜索服务，索引未就绪时由调用方回退到数据库查询
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleSearchIndex {
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double SUMMARY_WEIGHT = 2.0;
+    private static final double CONTENT_WEIGHT = 1.0;
+
+    /**
+     * BM25 参数
+     */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int REINDEX_BATCH_SIZE = 100;
+    private static final int SNIPPET_LENGTH = 120;
+    private static final int SNIPPET_LEAD = 30;
+
+    private final ArticlePortalRepository articleRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 词 -> 文章id -> 加权词频
+     */
+    private Map<String, Map<Long, Double>> postings = new HashMap<>();
+
+    private Map<Long, IndexedArticle> articles = new HashMap<>();
+
+    private double totalLength;
+
+    private volatile boolean ready;
+
+    private volatile boolean reindexing;
+
+    /**
+     * 全量构建期间收到的增量变更，构建完成后补做
+     */
+    private final Set<Long> changedDuringReindex = ConcurrentHashMap.newKeySet();
+
+    private record IndexedArticle(Long id, String title, String summary, String text,
+                                  Map<String, Double> termFreqs, double length) {
+    }
+
+    /**
+     * 命中结果，高亮片段已做 HTML 转义，命中词用 em 标签包裹
+     */
+    public record Hit(Long articleId, double score, String titleHighlight, String snippet) {
+    }
+
+    public record SearchResult(long total, List<Hit> hits) {
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(ARTICLE_SEARCH_TOPIC, Long.class, this::reindexArticle);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        Thread.ofVirtual()
+                .name("article-search-reindex")
+                .start(this::reindex);
+    }
+
+    /**
+     * 首次构建失败（如启动时数据库不可用）时定时重试，构建成功后不再执行
+     */
+    @Scheduled(fixedDelayString = "${blog.search.retry-interval:60000}",
+            initialDelayString = "${blog.search.retry-interval:60000}")
+    public void retryUntilReady() {
+        if (!ready && !reindexing) {
+            log.info("文章搜索索引尚未就绪，重新构建");
+            reindex();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 文章新增、更新、删除，事务提交后通知所有节点更新索引
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Long articleId = event.articleId();
+        try {
+            RedisUtils.publish(ARTICLE_SEARCH_TOPIC, articleId);
+        } catch (Exception e) {
+            //通知失败时至少更新本节点，其他节点要等下次全量构建才会修正
+            log.warn("文章搜索索引变更通知失败，文章id：{}", articleId, e);
+            reindexArticle(articleId);
+        }
+    }
+
+    /**
+     * 全量构建，构建完成后整体替换旧索引
+     */
+    public void reindex() {
+        reindexing = true;
+        changedDuringReindex.clear();
+        try {
+            Map<String, Map<Long, Double>> newPostings = new HashMap<>();
+            Map<Long, IndexedArticle> newArticles = new HashMap<>();
+            double newTotalLength = 0;
+            List<Long> publishedIds = articleRepository.fetchPublishedIds();
+            for (int from = 0; from < publishedIds.size(); from += REINDEX_BATCH_SIZE) {
+                List<Long> batch = publishedIds.subList(from, Math.min(from + REINDEX_BATCH_SIZE, publishedIds.size()));
+                for (Article article : articleRepository.fetchSearchDocuments(batch)) {
+                    IndexedArticle indexed = analyze(article);
+                    addPostings(newPostings, indexed);
+                    newArticles.put(indexed.id(), indexed);
+                    newTotalLength += indexed.length();
+                }
+            }
+
+            lock.writeLock()
+                    .lock();
+            try {
+                postings = newPostings;
+                articles = newArticles;
+                totalLength = newTotalLength;
+            } finally {
+                lock.writeLock()
+                        .unlock();
+            }
+            ready = true;
+            log.info("文章搜索索引构建完成，共 {} 篇，{} 个词", newArticles.size(), newPostings.size());
+        } catch (Exception e) {
+            log.error("文章搜索索引构建失败", e);
+        } finally {
+            reindexing = false;
+        }
+        changedDuringReindex.forEach(this::reindexArticle);
+        changedDuringReindex.clear();
+    }
+
+    /**
+     * 增量更新单篇文章，已删除或未发布的文章移出索引
+     */
+    public void reindexArticle(Long articleId) {
+        if (reindexing) {
+            changedDuringReindex.add(articleId);
+        }
+        try {
+            List<Article> documents = articleRepository.fetchSearchDocuments(List.of(articleId));
+            IndexedArticle indexed = documents.isEmpty() ? null : analyze(documents.get(0));
+
+            lock.writeLock()
+                    .lock();
+            try {
+                IndexedArticle old = articles.remove(articleId);
+                if (old != null) {
+                    removePostings(old);
+                    totalLength -= old.length();
+                }
+                if (indexed != null) {
+                    addPostings(postings, indexed);
+                    articles.put(articleId, indexed);
+                    totalLength += indexed.length();
+                }
+            } finally {
+                lock.writeLock()
+                        .unlock();
+            }
+        } catch (Exception e) {
+            log.error("文章搜索索引更新失败，文章id：{}", articleId, e);
+        }
+    }
+
+    /**
+     * 检索并分页，命中词越多、在标题摘要中命中越靠前
+     */
+    public SearchResult search(String keyword, int offset, int limit) {
+        List<String> queryTerms = SearchTokenizer.tokenize(keyword)
+                .stream()
+                .distinct()
+                .toList();
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(0, Collections.emptyList());
+        }
+        Pattern highlightPattern = highlightPattern(keyword, queryTerms);
+
+        lock.readLock()
+                .lock();
+        try {
+            int documentCount = articles.size();
+            if (documentCount == 0) {
+                return new SearchResult(0, Collections.emptyList());
+            }
+            double avgLength = totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> matchedTerms = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<Long, Double> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((articleId, termFreq) -> {
+                    double length = articles.get(articleId)
+                            .length();
+                    double score = idf * termFreq * (K1 + 1)
+                            / (termFreq + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(articleId, score, Double::sum);
+                    matchedTerms.merge(articleId, 1, Integer::sum);
+                });
+            }
+
+            List<Map.Entry<Long, Double>> ranked = scores.entrySet()
+                    .stream()
+                    .map(entry -> Map.entry(entry.getKey(),
+                            entry.getValue() * matchedTerms.get(entry.getKey()) / queryTerms.size()))
+                    .sorted(Map.Entry.<Long, Double>comparingByValue()
+                            .reversed())
+                    .toList();
+
+            List<Hit> hits = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + limit, ranked.size()); i++) {
+                Map.Entry<Long, Double> entry = ranked.get(i);
+                IndexedArticle article = articles.get(entry.getKey());
+                hits.add(new Hit(article.id(), entry.getValue(),
+                        highlight(article.title(), highlightPattern),
+                        snippet(article, highlightPattern)));
+            }
+            return new SearchResult(ranked.size(), hits);
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    private static IndexedArticle analyze(Article article) {
+        String title = article.getTitle() == null ? "" : article.getTitle();
+        String summary = article.getSummary() == null ? "" : article.getSummary();
+        String text = SearchTokenizer.stripMarkdown(article.getContent());
+
+        Map<String, Double> termFreqs = new HashMap<>();
+        accumulate(termFreqs, title, TITLE_WEIGHT);
+        accumulate(termFreqs, summary, SUMMARY_WEIGHT);
+        accumulate(termFreqs, text, CONTENT_WEIGHT);
+        double length = termFreqs.values()
+                .stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        return new IndexedArticle(article.getId(), title, summary, text, termFreqs, length);
+    }
+
+    private static void accumulate(Map<String, Double> termFreqs, String text, double weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            termFreqs.merge(token, weight, Double::sum);
+        }
+    }
+
+    private static void addPostings(Map<String, Map<Long, Double>> target, IndexedArticle article) {
+        article.termFreqs()
+                .forEach((term, termFreq) -> target.computeIfAbsent(term, key -> new HashMap<>())
+                        .put(article.id(), termFreq));
+    }
+
+    private void removePostings(IndexedArticle article) {
+        for (String term : article.termFreqs()
+                .keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(article.id());
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * 高亮原始关键词片段和多字词，单个汉字只在关键词本身就是单字时高亮
+     */
+    private static Pattern highlightPattern(String keyword, List<String> queryTerms) {
+        Set<String> fragments = new LinkedHashSet<>();
+        Arrays.stream(keyword.split("[^\\p{L}\\p{N}]+"))
+                .filter(fragment -> !fragment.isEmpty())
+                .forEach(fragments::add);
+        queryTerms.stream()
+                .filter(term -> term.length() > 1)
+                .forEach(fragments::add);
+        if (fragments.isEmpty()) {
+            return null;
+        }
+        String alternation = fragments.stream()
+                .sorted(Comparator.comparingInt(String::length)
+                        .reversed())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        return Pattern.compile(alternation, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * 取正文中第一个命中位置附近的片段，正文没有命中时取摘要
+     */
+    private static String snippet(IndexedArticle article, Pattern pattern) {
+        String text = article.text();
+        int start = 0;
+        if (pattern != null) {
+            Matcher matcher = pattern.matcher(text);
+            if (matcher.find()) {
+                start = Math.max(0, matcher.start() - SNIPPET_LEAD);
+            } else {
+                return highlight(article.summary(), pattern);
+            }
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        String fragment = highlight(text.substring(start, end), pattern);
+        return (start > 0 ? "..." : "") + fragment + (end < text.length() ? "..." : "");
+    }
+
+    /**
+     * 逐段转义，避免高亮标签和转义实体互相干扰
+     */
+    private static String highlight(String text, Pattern pattern) {
+        if (pattern == null) {
+            return HtmlUtils.htmlEscape(text);
+        }
+        StringBuilder result = new StringBuilder();
+        Matcher matcher = pattern.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            result.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                    .append("<em>")
+                    .append(HtmlUtils.htmlEscape(matcher.group()))
+                    .append("</em>");
+            last = matcher.end();
+        }
+        result.append(HtmlUtils.htmlEscape(text.substring(last)));
+        return result.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package org.sounfury.portal.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 搜索分词
+ * 英文和数字按连续字母数字切词并转小写；中日韩文字不做词典分词，按单字 + 相邻二字切分，
+ * 查询时同样切分，单字保证召回，二字词提升相关性
+ */
+final class SearchTokenizer {
+
+    private static final Pattern MARKDOWN_SYNTAX = Pattern.compile(
+            "```[\\s\\S]*?```|`[^`]*`|!\\[[^]]*]\\([^)]*\\)|\\[([^]]*)]\\([^)]*\\)|[#>*_~|-]+");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 切分为索引词，保留重复以便统计词频
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        int prevCjk = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                tokens.add(new String(Character.toChars(codePoint)));
+                if (prevCjk != -1) {
+                    tokens.add(new String(Character.toChars(prevCjk)) + new String(Character.toChars(codePoint)));
+                }
+                prevCjk = codePoint;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(Character.toLowerCase(codePoint));
+                prevCjk = -1;
+            } else {
+                flushWord(word, tokens);
+                prevCjk = -1;
+            }
+        }
+        flushWord(word, tokens);
+        return tokens;
+    }
+
+    /**
+     * 去掉 Markdown 标记，只保留正文文字，链接保留链接文字，代码块整体去掉
+     */
+    static String stripMarkdown(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        return MARKDOWN_SYNTAX.matcher(markdown)
+                .replaceAll(result -> result.group(1) != null ? Matcher.quoteReplacement(result.group(1)) : " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString()
+                    .toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+}
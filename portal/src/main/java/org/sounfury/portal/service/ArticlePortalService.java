@@ -1,7 +1,11 @@
 package org.sounfury.portal.service;
 
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.common.enums.TrendingWindow;
+import org.sounfury.portal.dto.rep.ArticleSearchRep;
 import org.sounfury.portal.dto.rep.HistoryCount;
 import org.sounfury.portal.dto.rep.PageArticleRep;
 import org.sounfury.portal.dto.rep.SingleArticleRep;
@@ -27,6 +31,14 @@ public interface ArticlePortalService {
      */
     PageRepDto<List<PageArticleRep>> pageQueryArticle(PageReqDto pageReqDto);
 
+    /**
+     * 游标分页查询文章
+     *
+     * @param pageReqDto
+     * @return
+     */
+    CursorPageRepDto<List<PageArticleRep>> cursorQueryArticle(CursorPageReqDto pageReqDto);
+
     /**
      * 分页查询历史文章
      * @param historyPageArticlesReq
@@ -51,12 +63,37 @@ public interface ArticlePortalService {
 
     List<PageArticleRep> pageQueryArticleTest(PageReqDto pageReqDto);
 
+    /**
+     * 最近若干个月的文章数量
+     */
     List<HistoryCount> historyArticleCount();
 
     /**
-     * 根据标题模糊查询文章
-     * @param titleKeyword 标题关键词
+     * 每年的文章数量
+     */
+    List<HistoryCount> historyArticleCountByYear();
+
+    /**
+     * 根据关键词查询文章（标题、摘要、正文），返回最相关的 10 篇
+     * @param titleKeyword 关键词
      * @return 文章列表
      */
     List<PageArticleRep> searchArticlesByTitle(String titleKeyword);
+
+    /**
+     * 全文检索文章（标题、摘要、正文），按相关度排序并高亮
+     *
+     * @param keyword
+     * @param pageReqDto
+     * @return
+     */
+    PageRepDto<List<ArticleSearchRep>> searchArticles(String keyword, PageReqDto pageReqDto);
+
+    /**
+     * 热门文章，按统计窗口内衰减后的阅读量排序
+     *
+     * @param window 统计窗口
+     * @param size   返回的文章数
+     */
+    List<PageArticleRep> trendingArticles(TrendingWindow window, int size);
 }
@@ -1,9 +1,11 @@
 package org.sounfury.portal.service;
 
+import org.sounfury.jooq.page.CursorPageRepDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.sounfury.portal.dto.req.CommentAddReq;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
+import org.sounfury.portal.dto.req.CommentReplyPageReq;
 
 import java.util.List;
 
@@ -14,5 +16,15 @@ public interface CommentPortalService {
      */
     PageRepDto<List<CommentTreeNode>> getCommentsByArticleId(CommentArticlePageReq commentPageReq);
 
+    /**
+     * 游标加载某个楼层的回复
+     */
+    CursorPageRepDto<List<CommentTreeNode>> getReplies(CommentReplyPageReq replyPageReq);
+
+    /**
+     * 文章评论数（含回复）
+     */
+    long countByArticleId(Long articleId);
+
     void addComment(CommentAddReq commentAddReq);
 }
@@ -0,0 +1,12 @@
+package org.sounfury.portal.service;
+
+import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.dto.rep.HomePageRep;
+
+public interface HomePortalService {
+
+    /**
+     * 首页聚合查询：站点信息、创建者信息、统计、分类、标签、归档和文章列表并发加载
+     */
+    HomePageRep getHomePage(PageReqDto pageReqDto);
+}
@@ -12,6 +12,18 @@ public interface SiteInfoPortalService {
      */
     SiteInfo getSiteInfo();
 
+    /**
+     * 查询网站信息，访客由调用方传入，可以在请求线程之外调用
+     *
+     * @param visitor 访客标识（客户端IP）
+     */
+    SiteInfo getSiteInfo(String visitor);
+
+    /**
+     * 今日独立访客数，未开启统计时为 null
+     */
+    Long todayUniqueVisitors();
+
 
     /**
      * 查询网站创始人信息
@@ -2,75 +2,137 @@ package org.sounfury.portal.service.impl;
 
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.redisson.client.protocol.ScoredEntry;
+import org.sounfury.core.convention.exception.ClientException;
+import org.sounfury.jooq.page.CursorPageRepDto;
+import org.sounfury.jooq.page.CursorPageReqDto;
 import org.sounfury.jooq.page.PageRepDto;
 import org.sounfury.jooq.page.PageReqDto;
-import org.sounfury.blog.jooq.tables.pojos.Article;
-import org.sounfury.blog.jooq.tables.pojos.Category;
+import org.sounfury.portal.cache.ArticleCardProjection;
+import org.sounfury.portal.cache.ArticleDetailCache;
+import org.sounfury.portal.cache.CommentCountCache;
+import org.sounfury.portal.common.enums.TrendingWindow;
+import org.sounfury.portal.counter.ArticleViewCounter;
 import org.sounfury.portal.dto.rep.*;
 import org.sounfury.portal.dto.req.CategoryPageReq;
 import org.sounfury.portal.dto.req.HistoryPageArticlesReq;
 import org.sounfury.portal.dto.req.TagPageReq;
+import org.sounfury.portal.recommend.RelatedArticleIndex;
 import org.sounfury.portal.repository.ArticlePortalRepository;
-import org.sounfury.portal.repository.CategoryPortalRepository;
 import org.sounfury.portal.repository.SiteInfoPortalRepository;
-import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.portal.search.ArticleSearchIndex;
 import org.sounfury.portal.service.ArticlePortalService;
+import org.sounfury.portal.stats.ArchiveStatistics;
+import org.sounfury.portal.stats.ArticleTrending;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class ArticlePortalServiceImpl implements ArticlePortalService {
+    /**
+     * 热门文章最多返回的篇数
+     */
+    private static final int MAX_TRENDING_SIZE = 50;
+
     private final ArticlePortalRepository articleRepository;
-    private final TagPortalRepository tagRepository;
-    private final CategoryPortalRepository categoryRepository;
     private final SiteInfoPortalRepository siteInfoPortalRepository;
+    private final ArticleViewCounter articleViewCounter;
+    private final ArticleCardProjection articleCardProjection;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArchiveStatistics archiveStatistics;
+    private final CommentCountCache commentCountCache;
+    private final ArticleDetailCache articleDetailCache;
+    private final ArticleTrending articleTrending;
+    private final RelatedArticleIndex relatedArticleIndex;
 
     @Override
     public SingleArticleRep getArticleById(Long id) {
-        Article article = articleRepository.fetchOneById(id);
-        List<TagPortalDto> tagPortalDtoList = tagRepository.fetchByArticleId(id)
-                .stream()
-                .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
-                .distinct()
-                .toList();
-        SingleArticleRep singleArticleRep = new SingleArticleRep(article);
-        singleArticleRep.setTags(tagPortalDtoList);
-        Category category = categoryRepository.fetchOneById(article.getCategoryId());
-        singleArticleRep.setCategory(new ArticleCategoryDto(category.getId(), category.getName()));
+        //详情走缓存，不存在的id同样有缓存，不会每次回源
+        SingleArticleRep singleArticleRep = articleDetailCache.get(id);
+        if (singleArticleRep == null) {
+            throw new ClientException("文章不存在");
+        }
 
-        article.setViewCount(article.getViewCount() + 1);
-        articleRepository.update(article);
+        //阅读量不进详情缓存，只在内存累加，定时批量写回
+        articleViewCounter.increment(id);
+        singleArticleRep.setViewCount(articleViewCounter.currentViews(id));
+        singleArticleRep.setRelated(relatedArticles(id));
         return singleArticleRep;
     }
 
+    /**
+     * 相关文章id从内存索引中取，卡片按id批量取
+     */
+    private List<PageArticleRep> relatedArticles(Long id) {
+        List<Long> relatedIds = relatedArticleIndex.related(id);
+        if (relatedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, PageArticleRep> cards = articleCardProjection.getCards(relatedIds);
+        return relatedIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public PageRepDto<List<PageArticleRep>> pageQueryArticle(PageReqDto pageReqDto) {
         PageRepDto<List<PageArticleRep>> listPageRepDto = articleRepository.pageQueryArticle(pageReqDto);
         return getPageTagsAndCategory(listPageRepDto);
     }
 
+    @Override
+    public CursorPageRepDto<List<PageArticleRep>> cursorQueryArticle(CursorPageReqDto pageReqDto) {
+        CursorPageRepDto<List<PageArticleRep>> cursorPage = articleRepository.cursorQueryArticle(pageReqDto);
+        fillTagsAndCategory(cursorPage.getData());
+        return cursorPage;
+    }
+
     @Override
     public PageRepDto<List<PageArticleRep>> historyArticle(HistoryPageArticlesReq historyPageArticlesReq) {
         PageRepDto<List<PageArticleRep>> listPageRepDto;
-        if (historyPageArticlesReq.getAccuracy() == null) {
+        if (historyPageArticlesReq.getAccuracy() == null || historyPageArticlesReq.getHistoryTime() == null) {
             //未传查询全部
             listPageRepDto = articleRepository.pageQueryArticle(historyPageArticlesReq);
             return getPageTagsAndCategory(listPageRepDto);
         }
 
+        //按自然年 / 自然月归档，总数直接取归档统计
+        LocalDateTime start;
+        LocalDateTime end;
+        long total;
         switch (historyPageArticlesReq.getAccuracy()) {
             case YEAR:
-                listPageRepDto = articleRepository.pageQueryHistoryArticleByYear(historyPageArticlesReq);
+                int year = historyPageArticlesReq.getHistoryTime()
+                        .getYear();
+                start = LocalDate.of(year, 1, 1)
+                        .atStartOfDay();
+                end = start.plusYears(1);
+                total = archiveStatistics.yearCount(year);
                 break;
             case MONTH:
-                listPageRepDto = articleRepository.pageQueryHistoryArticleByMonth(historyPageArticlesReq);
+                YearMonth month = YearMonth.from(historyPageArticlesReq.getHistoryTime());
+                start = month.atDay(1)
+                        .atStartOfDay();
+                end = start.plusMonths(1);
+                total = archiveStatistics.monthCount(month);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported accuracy: " + historyPageArticlesReq.getAccuracy());
         }
 
+        listPageRepDto = articleRepository.pageQueryArticleByCreateTime(historyPageArticlesReq, start, end, total);
         return getPageTagsAndCategory(listPageRepDto);
     }
 
@@ -93,42 +155,135 @@ public class ArticlePortalServiceImpl implements ArticlePortalService {
 
     @Override
     public List<HistoryCount> historyArticleCount() {
-        List<HistoryCount> historyCounts = articleRepository.historyArticleCount();
-        System.out.println(historyCounts);
-        return historyCounts;
+        return archiveStatistics.recentMonths();
+    }
+
+    @Override
+    public List<HistoryCount> historyArticleCountByYear() {
+        return archiveStatistics.years();
     }
 
     @Override
     public List<PageArticleRep> searchArticlesByTitle(String titleKeyword) {
-        List<PageArticleRep> articles = articleRepository.searchArticlesByTitle(titleKeyword);
-        articles.forEach(pageArticleRep -> {
-            Category category = categoryRepository.fetchOneById(pageArticleRep.getCategoryId());
-            List<TagPortalDto> tagPortalDtoList = tagRepository.fetchByArticleId(pageArticleRep.getId())
-                    .stream()
-                    .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
+        if (!articleSearchIndex.isReady()) {
+            //索引未就绪时回退到标题模糊查询
+            List<PageArticleRep> articles = articleRepository.searchArticlesByTitle(titleKeyword);
+            fillTagsAndCategory(articles);
+            return articles;
+        }
+        ArticleSearchIndex.SearchResult result = articleSearchIndex.search(titleKeyword, 0, 10);
+        return searchHitsToReps(result.hits()).stream()
+                .map(ArticleSearchRep::getArticle)
+                .toList();
+    }
+
+    @Override
+    public PageRepDto<List<ArticleSearchRep>> searchArticles(String keyword, PageReqDto pageReqDto) {
+        if (!articleSearchIndex.isReady()) {
+            //高亮字段按约定是转义后的 HTML，回退结果同样转义，并按请求分页
+            List<PageArticleRep> matched = searchArticlesByTitle(keyword);
+            long offset = pageReqDto.getOffset();
+            List<ArticleSearchRep> fallback = matched.stream()
+                    .skip(offset)
+                    .limit(pageReqDto.getSize())
+                    .map(article -> new ArticleSearchRep(article, escape(article.getTitle()),
+                            escape(article.getSummary()), null))
                     .toList();
-            pageArticleRep.setTags(tagPortalDtoList);
-            pageArticleRep.setCategory(new ArticleCategoryDto(category.getId(), category.getName()));
-        });
+            return new PageRepDto<>(matched.size(), fallback, offset + fallback.size() < matched.size());
+        }
+        ArticleSearchIndex.SearchResult result = articleSearchIndex.search(keyword,
+                (int) pageReqDto.getOffset(), pageReqDto.getSize());
+        List<ArticleSearchRep> reps = searchHitsToReps(result.hits());
+        return new PageRepDto<>(result.total(), reps, pageReqDto.getOffset() + result.hits()
+                .size() < result.total());
+    }
+
+    private static String escape(String text) {
+        return text == null ? null : HtmlUtils.htmlEscape(text);
+    }
+
+    /**
+     * 排行中已删除或下线的文章取不到卡片，多取一些再截断
+     */
+    @Override
+    public List<PageArticleRep> trendingArticles(TrendingWindow window, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_TRENDING_SIZE);
+        List<Long> ids = articleTrending.top(window, limit * 2)
+                .stream()
+                .map(ScoredEntry::getValue)
+                .toList();
+        Map<Long, PageArticleRep> cards = articleCardProjection.getCards(ids);
+        List<PageArticleRep> articles = new ArrayList<>(limit);
+        for (Long id : ids) {
+            PageArticleRep card = cards.get(id);
+            if (card == null) {
+                continue;
+            }
+            articles.add(card);
+            if (articles.size() == limit) {
+                break;
+            }
+        }
+        fillViewCounts(articles);
         return articles;
     }
 
+    /**
+     * 按命中顺序取文章卡片，卡片已不存在（刚下线）的命中跳过
+     */
+    private List<ArticleSearchRep> searchHitsToReps(List<ArticleSearchIndex.Hit> hits) {
+        Map<Long, PageArticleRep> cards = articleCardProjection.getCards(hits.stream()
+                .map(ArticleSearchIndex.Hit::articleId)
+                .toList());
+        fillViewCounts(List.copyOf(cards.values()));
+        List<ArticleSearchRep> reps = new ArrayList<>(hits.size());
+        for (ArticleSearchIndex.Hit hit : hits) {
+            PageArticleRep card = cards.get(hit.articleId());
+            if (card == null) {
+                continue;
+            }
+            reps.add(new ArticleSearchRep(card, hit.titleHighlight(), hit.snippet(), hit.score()));
+        }
+        return reps;
+    }
+
     @NotNull
     private PageRepDto<List<PageArticleRep>> getPageTagsAndCategory(PageRepDto<List<PageArticleRep>> listPageRepDto) {
-        if (listPageRepDto.getData() != null) {
-            listPageRepDto.getData()
-                    .forEach(pageArticleRep -> {
-                        Category category = categoryRepository.fetchOneById(pageArticleRep.getCategoryId());
-                        List<TagPortalDto> tagPortalDtoList = tagRepository.fetchByArticleId(pageArticleRep.getId())
-                                .stream()
-                                .map(tag -> new TagPortalDto(tag.getId(), tag.getName()))
-                                .toList();
-                        pageArticleRep.setTags(tagPortalDtoList);
-                        pageArticleRep.setCategory(new ArticleCategoryDto(category.getId(), category.getName()));
-                    });
-        }
+        fillTagsAndCategory(listPageRepDto.getData());
         return listPageRepDto;
     }
 
+    /**
+     * 批量填充标签和分类：整页文章按id从卡片投影中一次取出，未命中的由投影回源
+     */
+    private void fillTagsAndCategory(List<PageArticleRep> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return;
+        }
+        List<Long> articleIds = articles.stream()
+                .map(PageArticleRep::getId)
+                .toList();
+        Map<Long, PageArticleRep> cards = articleCardProjection.getCards(articleIds);
+        Map<Long, Long> commentCounts = commentCountCache.getCounts(articleIds);
+
+        articles.forEach(pageArticleRep -> {
+            pageArticleRep.setCommentCount(commentCounts.getOrDefault(pageArticleRep.getId(), 0L));
+            PageArticleRep card = cards.get(pageArticleRep.getId());
+            pageArticleRep.setTags(card == null ? Collections.emptyList() : card.getTags());
+            pageArticleRep.setCategory(card == null ? null : card.getCategory());
+        });
+        fillViewCounts(articles);
+    }
+
+    /**
+     * 用计数器中的阅读量覆盖文章上的已写回阅读量，整批一次计算
+     */
+    private void fillViewCounts(List<PageArticleRep> articles) {
+        Map<Long, Long> knownViews = new HashMap<>(articles.size() * 2);
+        articles.forEach(article -> knownViews.put(article.getId(), article.getViewCount()));
+        Map<Long, Long> views = articleViewCounter.currentViews(knownViews);
+        articles.forEach(article -> article.setViewCount(views.get(article.getId())));
+    }
+
 
 }
@@ -2,74 +2,122 @@ package org.sounfury.portal.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.sounfury.blog.jooq.tables.pojos.Comment;
+import org.sounfury.blog.jooq.tables.records.CommentRecord;
+import org.sounfury.core.convention.exception.ClientException;
 import org.sounfury.core.utils.MapstructUtils;
+import org.sounfury.jooq.page.CursorPageRepDto;
 import org.sounfury.jooq.page.PageRepDto;
-
+import org.sounfury.jooq.page.utils.JooqPageHelper;
+import org.sounfury.jooq.page.utils.PageCountCache;
+import org.sounfury.jooq.utils.TransactionUtils;
+import org.sounfury.portal.cache.CommentCountCache;
 import org.sounfury.portal.dto.rep.CommentTreeNode;
 import org.sounfury.portal.dto.req.CommentAddReq;
 import org.sounfury.portal.dto.req.CommentArticlePageReq;
+import org.sounfury.portal.dto.req.CommentReplyPageReq;
 import org.sounfury.portal.repository.CommentPortalRepository;
 import org.sounfury.portal.service.CommentPortalService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.sounfury.blog.jooq.Tables.COMMENT;
+
 @Service
 @RequiredArgsConstructor
 public class CommentPortalServiceImpl implements CommentPortalService {
     private final CommentPortalRepository commentRepository;
+    private final CommentCountCache commentCountCache;
 
+    /**
+     * 每个楼层首屏展示的回复数
+     */
+    @Value("${blog.comment.reply-preview-size:3}")
+    private int replyPreviewSize;
 
+    /**
+     * 只对顶层评论分页，楼层不会被分页截断；当前页各楼层的前几条回复一次查出，其余回复按游标加载
+     */
     @Override
     public PageRepDto<List<CommentTreeNode>> getCommentsByArticleId(CommentArticlePageReq commentPageReq) {
-        PageRepDto<List<org.sounfury.blog.jooq.tables.records.CommentRecord>> comments = commentRepository.getComments(commentPageReq);
-        List<CommentTreeNode> commentTree = buildCommentTree(comments.getData());
-        return new PageRepDto<>(comments.getTotal(), commentTree);
+        if (commentPageReq.getSortBy()
+                .isEmpty()) {
+            commentPageReq.setSortBy("create_time desc");
+        }
+        PageRepDto<List<CommentRecord>> roots = commentRepository.getParentComments(commentPageReq);
+        List<CommentRecord> rootRecords = roots.getData();
+        if (rootRecords == null || rootRecords.isEmpty()) {
+            return new PageRepDto<>(roots.getTotal(), Collections.emptyList(), roots.getHasNext());
+        }
+
+        List<Long> rootIds = rootRecords.stream()
+                .map(CommentRecord::getId)
+                .toList();
+        Map<Long, List<CommentRecord>> repliesByThread = commentRepository.fetchRepliesOfThreads(rootIds, replyPreviewSize)
+                .stream()
+                .collect(Collectors.groupingBy(CommentRecord::getTopCommentId));
+        Map<Long, Integer> replyCounts = commentRepository.countRepliesOfThreads(rootIds);
+
+        List<CommentTreeNode> commentTree = new ArrayList<>(rootRecords.size());
+        for (CommentRecord root : rootRecords) {
+            CommentTreeNode rootNode = CommentTreeNode.from(root);
+            List<CommentRecord> replies = repliesByThread.getOrDefault(root.getId(), Collections.emptyList());
+            replies.forEach(reply -> rootNode.getChildren()
+                    .add(CommentTreeNode.from(reply)));
+
+            int replyCount = replyCounts.getOrDefault(root.getId(), 0);
+            rootNode.setReplyCount((long) replyCount);
+            if (replyCount > replies.size() && !replies.isEmpty()) {
+                rootNode.setRepliesCursor(JooqPageHelper.forwardCursor(replies.get(replies.size() - 1),
+                        COMMENT.CREATE_TIME, COMMENT.ID));
+            }
+            commentTree.add(rootNode);
+        }
+        return new PageRepDto<>(roots.getTotal(), commentTree, roots.getHasNext());
     }
 
     @Override
-    @Transactional
-    public void addComment(CommentAddReq commentAddReq) {
-        Comment convert = MapstructUtils.convert(commentAddReq, Comment.class);
-        commentRepository.insert(convert);
+    public CursorPageRepDto<List<CommentTreeNode>> getReplies(CommentReplyPageReq replyPageReq) {
+        //回复固定按时间正序，与首屏回复的顺序和游标保持一致
+        replyPageReq.setSortBy("create_time asc");
+        CursorPageRepDto<List<CommentRecord>> replies = commentRepository.cursorReplies(replyPageReq.getTopCommentId(),
+                replyPageReq);
+        List<CommentTreeNode> nodes = replies.getData()
+                .stream()
+                .map(CommentTreeNode::from)
+                .toList();
+        return new CursorPageRepDto<>(nodes, replies.getNextCursor(), replies.getPrevCursor(),
+                replies.isHasNext(), replies.isHasPrev(), replies.getTotal());
     }
 
-    private List<CommentTreeNode> buildCommentTree(List<org.sounfury.blog.jooq.tables.records.CommentRecord> allComments) {
-        // 创建结果集
-        List<CommentTreeNode> result = new ArrayList<>();
-
-        // 将所有评论按 ID 映射
-        Map<Long, CommentTreeNode> commentMap = allComments.stream()
-                .collect(Collectors.toMap(org.sounfury.blog.jooq.tables.records.CommentRecord::getId, record -> new CommentTreeNode(
-                        record.getId(),
-                        record.getUserId(),
-                        record.getParentId(),
-                        record.getTopCommentId(),
-                        record.getContent(),
-                        record.getLikeCount(),
-                        record.getCreateTime(),
-                        record.getEnableStatus(),
-                        new ArrayList<>())));
+    @Override
+    public long countByArticleId(Long articleId) {
+        return commentCountCache.getCount(articleId);
+    }
 
-        // 遍历所有评论，构造父子关系
-        for (org.sounfury.blog.jooq.tables.records.CommentRecord record : allComments) {
-            Long parentId = record.getParentId();
-            CommentTreeNode currentNode = commentMap.get(record.getId());
-            if (parentId == null) {
-                // 父评论，直接加入结果集
-                result.add(currentNode);
-            } else {
-                // 子评论，加入其父评论的 children 列表
-                CommentTreeNode topParentNode = commentMap.get(record.getTopCommentId());
-                // 将当前子评论加入顶层父评论的 children 列表
-                topParentNode.getChildren()
-                        .add(currentNode);
+    @Override
+    @Transactional
+    public void addComment(CommentAddReq commentAddReq) {
+        Comment convert = MapstructUtils.convert(commentAddReq, Comment.class);
+        if (convert.getParentId() != null) {
+            //回复归入父评论所在的楼层
+            Comment parent = commentRepository.fetchOneById(convert.getParentId());
+            if (parent == null || !parent.getArticleId()
+                    .equals(convert.getArticleId())) {
+                throw new ClientException("回复的评论不存在");
             }
+            convert.setTopCommentId(parent.getTopCommentId() != null ? parent.getTopCommentId() : parent.getId());
+        } else {
+            convert.setTopCommentId(null);
         }
-        return result;
+        commentRepository.insert(convert);
+        TransactionUtils.afterCommit(() -> PageCountCache.evict(COMMENT));
+        commentCountCache.evict(convert.getArticleId());
     }
 }
@@ -0,0 +1,122 @@
+package org.sounfury.portal.service.impl;
+
+import cn.hutool.core.bean.BeanUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.pojos.SiteInfo;
+import org.sounfury.jooq.page.PageReqDto;
+import org.sounfury.portal.counter.SiteVisitCounter;
+import org.sounfury.portal.dto.rep.HomePageRep;
+import org.sounfury.portal.dto.rep.SiteInfoRep;
+import org.sounfury.portal.service.ArticlePortalService;
+import org.sounfury.portal.service.CategoryPortalService;
+import org.sounfury.portal.service.HomePortalService;
+import org.sounfury.portal.service.SiteInfoPortalService;
+import org.sounfury.portal.service.TagPortalService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 首页聚合
+ * 每个部分在独立的虚拟线程中加载，请求线程按截止时间逐个等待；返回前未完成的部分全部取消，
+ * 子任务不会比请求活得更久。某个部分超时或失败只影响该部分，其余部分照常返回。
+ * 子任务不持有请求对象（请求结束后会被容器回收复用），需要的请求信息在提交前取好传入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HomePortalServiceImpl implements HomePortalService {
+    private final SiteInfoPortalService siteInfoService;
+    private final CategoryPortalService categoryService;
+    private final TagPortalService tagService;
+    private final ArticlePortalService articleService;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 每个部分的超时时间（毫秒），各部分同时开始，超时后该部分为空
+     */
+    @Value("${blog.home.part-timeout:2000}")
+    private long partTimeout;
+
+    private record Part<T>(String name, Future<T> future, Consumer<T> setter) {
+    }
+
+    @Override
+    public HomePageRep getHomePage(PageReqDto pageReqDto) {
+        HomePageRep home = new HomePageRep();
+        String visitor = SiteVisitCounter.currentVisitor();
+        List<Part<?>> parts = new ArrayList<>();
+        parts.add(fork("siteInfo", () -> siteInfo(visitor), home::setSiteInfo));
+        parts.add(fork("creatorInfo", siteInfoService::getSiteCreatorInfo, home::setCreatorInfo));
+        parts.add(fork("count", siteInfoService::count, home::setCount));
+        parts.add(fork("categories", categoryService::getAllCategory, home::setCategories));
+        parts.add(fork("tags", tagService::getAllTags, home::setTags));
+        parts.add(fork("historyCount", articleService::historyArticleCount, home::setHistoryCount));
+        parts.add(fork("articles", () -> articleService.pageQueryArticle(pageReqDto), home::setArticles));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeout);
+        try {
+            for (Part<?> part : parts) {
+                join(part, deadline, home);
+            }
+        } finally {
+            parts.forEach(part -> part.future()
+                    .cancel(true));
+        }
+        return home;
+    }
+
+    private SiteInfoRep siteInfo(String visitor) {
+        SiteInfo siteInfo = siteInfoService.getSiteInfo(visitor);
+        SiteInfoRep siteInfoRep = BeanUtil.copyProperties(siteInfo, SiteInfoRep.class);
+        siteInfoRep.setTodayVisitors(siteInfoService.todayUniqueVisitors());
+        return siteInfoRep;
+    }
+
+    /**
+     * 提交子任务
+     */
+    private <T> Part<T> fork(String name, Callable<T> task, Consumer<T> setter) {
+        return new Part<>(name, executor.submit(task), setter);
+    }
+
+    private static <T> void join(Part<T> part, long deadline, HomePageRep home) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            part.setter()
+                    .accept(part.future()
+                            .get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            log.warn("首页 {} 加载超时", part.name());
+            home.getFailedParts()
+                    .add(part.name());
+        } catch (ExecutionException e) {
+            log.error("首页 {} 加载失败", part.name(), e.getCause());
+            home.getFailedParts()
+                    .add(part.name());
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            home.getFailedParts()
+                    .add(part.name());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
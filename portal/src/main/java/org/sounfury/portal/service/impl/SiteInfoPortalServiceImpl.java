@@ -5,30 +5,49 @@ import static org.sounfury.blog.jooq.Tables.*;
 
 import org.sounfury.blog.jooq.tables.pojos.SiteCreatorInfo;
 import org.sounfury.blog.jooq.tables.pojos.SiteInfo;
+import org.sounfury.core.constant.CacheNames;
+import org.sounfury.portal.counter.SiteVisitCounter;
 import org.sounfury.portal.dto.rep.InfoCountRep;
 import org.sounfury.portal.dto.rep.SiteCreatorInfoRep;
-import org.sounfury.portal.repository.SiteInfoPortalRepository;
 import org.sounfury.portal.service.SiteInfoPortalService;
+import org.sounfury.portal.stats.SiteStatistics;
 import org.sounfury.utils.RedisCache;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+
 
 @RequiredArgsConstructor
 @Service
 public class SiteInfoPortalServiceImpl implements SiteInfoPortalService {
-    private final SiteInfoPortalRepository siteInfoRepository;
     private final org.sounfury.blog.jooq.tables.daos.SiteCreatorInfoDao siteCreatorInfoRepository;
+    private final SiteVisitCounter siteVisitCounter;
+    private final SiteStatistics siteStatistics;
 
 
     @Override
     public SiteInfo getSiteInfo() {
-        siteInfoRepository.updateViewCount();
-       return siteInfoRepository.fetchOneById((byte) 1);
+        return getSiteInfo(SiteVisitCounter.currentVisitor());
+    }
+
+    @Override
+    public SiteInfo getSiteInfo(String visitor) {
+        //访问量只在内存累加，站点信息走缓存，请求路径上不写库
+        siteVisitCounter.increment(visitor);
+        SiteInfo cached = siteStatistics.siteInfo();
+        SiteInfo siteInfo = new SiteInfo(cached);
+        siteInfo.setTotalVisits(siteVisitCounter.currentVisits(cached.getTotalVisits()));
+        return siteInfo;
+    }
+
+    @Override
+    public Long todayUniqueVisitors() {
+        return siteVisitCounter.uniqueVisitors(LocalDate.now());
     }
 
     @Override
-    @Cacheable(value = "siteCreatorInfoCache", key = "'siteCreatorInfo'")
+    @Cacheable(value = CacheNames.SITE_CREATOR_INFO, key = "'siteCreatorInfo'")
     public SiteCreatorInfoRep getSiteCreatorInfo() {
         SiteCreatorInfo siteCreatorInfo = siteCreatorInfoRepository.fetchOneById((byte) 1);
         return new SiteCreatorInfoRep(siteCreatorInfo);
@@ -36,6 +55,6 @@ public class SiteInfoPortalServiceImpl implements SiteInfoPortalService {
 
     @Override
     public InfoCountRep count() {
-        return siteInfoRepository.countInfo();
+        return siteStatistics.counts();
     }
 }
@@ -2,7 +2,7 @@ package org.sounfury.portal.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.sounfury.portal.dto.rep.TagsQueryRep;
-import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.portal.stats.TagStatistics;
 import org.sounfury.portal.service.TagPortalService;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +11,10 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class TagPortalServiceImpl implements TagPortalService {
-    private final TagPortalRepository tagRepository;
+    private final TagStatistics tagStatistics;
 
     @Override
     public List<TagsQueryRep> getAllTags() {
-        return tagRepository.fetchAllTag();
+        return tagStatistics.tags();
     }
 }
@@ -0,0 +1,232 @@
+package org.sounfury.portal.stats;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.dto.rep.HistoryCount;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.ArticlePortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+import static org.sounfury.core.constant.RedisKeyConstant.ARCHIVE_STATS_SEQUENCE;
+import static org.sounfury.core.constant.RedisKeyConstant.ARCHIVE_STATS_TOPIC;
+
+/**
+ * 文章归档统计
+ * 内存中维护已发布文章按月的数量，按年数量由月汇总；首次使用时从数据库加载一次，
+ * 之后由后台发布、下线、删除文章时按增量更新（通过 Redis topic 同步到所有节点），并定时与数据库对账
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArchiveStatistics {
+    private static final char DELTA_SEPARATOR = ':';
+    private static final char SEQUENCE_SEPARATOR = '@';
+
+    private final ArticlePortalRepository articleRepository;
+    private final ContentVersions contentVersions;
+
+    /**
+     * 月份 -> 已发布文章数，重新统计时整体替换，读取方不加锁也不会看到清空到一半的数据
+     */
+    private volatile ConcurrentSkipListMap<YearMonth, Long> monthCounts = new ConcurrentSkipListMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * 当前快照查询前读到的增量序号，序号不大于它的增量在快照查询之前就已提交，快照中已包含
+     */
+    private long snapshotSequence;
+
+    /**
+     * 归档接口默认返回的最近月份数
+     */
+    @Value("${blog.archive.history-depth:5}")
+    private int historyDepth;
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(ARCHIVE_STATS_TOPIC, String.class, this::applyDelta);
+    }
+
+    /**
+     * 定时从数据库重新统计，修正增量丢失等带来的偏差
+     */
+    @Scheduled(fixedDelayString = "${blog.archive.reconcile-interval:3600000}",
+            initialDelayString = "${blog.archive.reconcile-interval:3600000}")
+    public synchronized void reload() {
+        long sequence = currentSequence();
+        monthCounts = new ConcurrentSkipListMap<>(articleRepository.countPublishedByMonth());
+        snapshotSequence = sequence;
+        loaded = true;
+        contentVersions.localStateChanged(ContentVersions.ARTICLES);
+    }
+
+    /**
+     * 最近有文章的若干个月及其文章数，按月份倒序
+     */
+    public List<HistoryCount> recentMonths() {
+        return recentMonths(historyDepth);
+    }
+
+    public List<HistoryCount> recentMonths(int depth) {
+        ensureLoaded();
+        return monthCounts.descendingMap()
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() > 0)
+                .limit(depth)
+                .map(entry -> new HistoryCount(entry.getKey()
+                        .toString(), entry.getValue()
+                        .intValue()))
+                .toList();
+    }
+
+    /**
+     * 每年的文章数，按年份倒序
+     */
+    public List<HistoryCount> years() {
+        ensureLoaded();
+        Map<Integer, Long> yearCounts = new TreeMap<>(Comparator.reverseOrder());
+        monthCounts.forEach((month, count) -> yearCounts.merge(month.getYear(), count, Long::sum));
+        return yearCounts.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new HistoryCount(String.valueOf(entry.getKey()), entry.getValue()
+                        .intValue()))
+                .toList();
+    }
+
+    public long monthCount(YearMonth month) {
+        ensureLoaded();
+        return Math.max(0L, monthCounts.getOrDefault(month, 0L));
+    }
+
+    public long yearCount(int year) {
+        ensureLoaded();
+        return Math.max(0L, monthCounts.subMap(YearMonth.of(year, 1), true, YearMonth.of(year, 12), true)
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum());
+    }
+
+    /**
+     * 文章新增、更新、删除，事务提交后通知所有节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        publishDeltas(publishedMonth(event.before()), publishedMonth(event.after()));
+    }
+
+    private void publishDeltas(YearMonth before, YearMonth after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<YearMonth, Long> deltas = new HashMap<>();
+        if (before != null) {
+            deltas.merge(before, -1L, Long::sum);
+        }
+        if (after != null) {
+            deltas.merge(after, 1L, Long::sum);
+        }
+        String prefix = nextSequencePrefix();
+        deltas.forEach((month, delta) -> {
+            String message = prefix + month + DELTA_SEPARATOR + delta;
+            try {
+                RedisUtils.publish(ARCHIVE_STATS_TOPIC, message);
+            } catch (Exception e) {
+                //通知失败只影响统计的实时性，定时对账会修正
+                log.warn("归档统计增量通知失败：{}", message, e);
+                applyDelta(message);
+            }
+        });
+    }
+
+    /**
+     * 提交后取得的增量序号，取不到时不带序号，收到的节点总是应用
+     */
+    private static String nextSequencePrefix() {
+        try {
+            return String.valueOf(RedisUtils.incrAtomicValue(ARCHIVE_STATS_SEQUENCE)) + SEQUENCE_SEPARATOR;
+        } catch (Exception e) {
+            log.warn("归档统计增量序号递增失败", e);
+            return "";
+        }
+    }
+
+    /**
+     * 读取失败时沿用上一个快照的序号
+     */
+    private long currentSequence() {
+        try {
+            return RedisUtils.getAtomicValue(ARCHIVE_STATS_SEQUENCE);
+        } catch (Exception e) {
+            log.warn("归档统计增量序号读取失败", e);
+            return snapshotSequence;
+        }
+    }
+
+    /**
+     * 应用增量，消息格式为 序号@yyyy-MM:delta
+     * 与 reload 互斥，增量不会写进正被替换掉的旧 map；序号不大于快照序号的增量已包含在快照中，直接丢弃。
+     * 提交后、取得序号前恰好开始的快照查询仍可能与增量重复计入，由定时对账修正
+     */
+    private synchronized void applyDelta(String message) {
+        if (!loaded) {
+            //尚未加载时等首次使用再从数据库统计
+            return;
+        }
+        int sequenceIndex = message.indexOf(SEQUENCE_SEPARATOR);
+        if (sequenceIndex >= 0 && Long.parseLong(message.substring(0, sequenceIndex)) <= snapshotSequence) {
+            return;
+        }
+        int index = message.lastIndexOf(DELTA_SEPARATOR);
+        YearMonth month = YearMonth.parse(message.substring(sequenceIndex + 1, index));
+        long delta = Long.parseLong(message.substring(index + 1));
+        monthCounts.merge(month, delta, Long::sum);
+        contentVersions.localStateChanged(ContentVersions.ARTICLES);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * 文章已发布时返回其归档月份，否则返回 null
+     */
+    private static YearMonth publishedMonth(Article article) {
+        if (article == null
+                || !Objects.equals(article.getEnableStatus(), STATUS_ENABLE)
+                || (article.getDelFlag() != null && !Objects.equals(article.getDelFlag(), NOT_DEL_FLAG))) {
+            return null;
+        }
+        LocalDateTime createTime = article.getCreateTime() == null ? LocalDateTime.now() : article.getCreateTime();
+        return YearMonth.from(createTime);
+    }
+}
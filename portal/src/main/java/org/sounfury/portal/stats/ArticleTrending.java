@@ -0,0 +1,144 @@
+package org.sounfury.portal.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.client.protocol.ScoredEntry;
+import org.sounfury.portal.common.enums.TrendingWindow;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_TRENDING_BUCKET;
+import static org.sounfury.core.constant.RedisKeyConstant.ARTICLE_TRENDING_RANK;
+
+/**
+ * 热门文章排行
+ * 阅读量按小时记入 Redis sorted set（每小时一个桶，过期自动清理），定时把窗口内的小时桶按衰减权重合并成排行，
+ * 查询前 N 名只是一次 ZREVRANGE。阅读量随阅读计数器的批量写回一起记入，请求路径上不访问 Redis。
+ * 排行所有节点共用，各节点重复计算结果相同
+ */
+@Slf4j
+@Component
+public class ArticleTrending {
+
+    /**
+     * 每个窗口排行最多保留的文章数
+     */
+    private static final int MAX_RANKED = 1000;
+
+    /**
+     * 小时桶在最长窗口之外多保留的时间
+     */
+    private static final Duration BUCKET_GRACE = Duration.ofHours(2);
+
+    private final String nodeId = UUID.randomUUID()
+            .toString();
+
+    @Value("${blog.article.trending-enabled:true}")
+    private boolean enabled;
+
+    @Value("${blog.article.trending-refresh-interval:300000}")
+    private long refreshInterval;
+
+    /**
+     * 本节点各窗口最近一次计算排行的时间
+     */
+    private final Map<TrendingWindow, Long> refreshedAt = new ConcurrentHashMap<>();
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    private static String bucketKey(long hour) {
+        return ARTICLE_TRENDING_BUCKET + hour;
+    }
+
+    private static RScoredSortedSet<Long> rank(TrendingWindow window) {
+        return RedisUtils.getClient()
+                .getScoredSortedSet(ARTICLE_TRENDING_RANK + window.name());
+    }
+
+    /**
+     * 记入一批阅读增量，文章id -> 阅读次数
+     */
+    public void record(Map<Long, Long> views) {
+        if (!enabled || views.isEmpty()) {
+            return;
+        }
+        String key = bucketKey(currentHour());
+        try {
+            RBatch batch = RedisUtils.getClient()
+                    .createBatch();
+            RScoredSortedSetAsync<Long> bucket = batch.getScoredSortedSet(key);
+            views.forEach((articleId, count) -> bucket.addScoreAsync(articleId, count));
+            bucket.expireAsync(Duration.ofHours(TrendingWindow.maxHours())
+                    .plus(BUCKET_GRACE));
+            batch.execute();
+        } catch (Exception e) {
+            //热门排行允许丢失少量阅读，不影响阅读量本身
+            log.warn("记录热门文章阅读失败，文章数：{}", views.size(), e);
+        }
+    }
+
+    /**
+     * 窗口内的前 N 篇文章及衰减后的得分，按得分从高到低
+     */
+    public List<ScoredEntry<Long>> top(TrendingWindow window, int size) {
+        RScoredSortedSet<Long> rank = rank(window);
+        //排行还没算过（首次启动或没有阅读）时当场算一次，没有阅读时不会反复计算
+        if (!rank.isExists() && System.currentTimeMillis() - refreshedAt.getOrDefault(window, 0L) > refreshInterval) {
+            refresh(window);
+        }
+        return List.copyOf(rank.entryRangeReversed(0, size - 1));
+    }
+
+    @Scheduled(fixedDelayString = "${blog.article.trending-refresh-interval:300000}",
+            initialDelayString = "${blog.article.trending-refresh-interval:300000}")
+    public void refreshAll() {
+        if (!enabled) {
+            return;
+        }
+        for (TrendingWindow window : TrendingWindow.values()) {
+            try {
+                refresh(window);
+            } catch (Exception e) {
+                log.error("热门文章排行计算失败：{}", window, e);
+            }
+        }
+    }
+
+    /**
+     * 按衰减权重合并窗口内的小时桶（ZUNIONSTORE），先写入临时 key 再整体替换，读取方不会看到半成品
+     */
+    public void refresh(TrendingWindow window) {
+        refreshedAt.put(window, System.currentTimeMillis());
+        long hour = currentHour();
+        Map<String, Double> weights = new HashMap<>(window.getHours());
+        for (int age = 0; age < window.getHours(); age++) {
+            weights.put(bucketKey(hour - age), window.weight(age));
+        }
+
+        RScoredSortedSet<Long> temp = RedisUtils.getClient()
+                .getScoredSortedSet(ARTICLE_TRENDING_RANK + window.name() + ":" + nodeId);
+        int size = temp.union(weights);
+        if (size == 0) {
+            rank(window).delete();
+            return;
+        }
+        if (size > MAX_RANKED) {
+            temp.removeRangeByRank(0, size - MAX_RANKED - 1);
+        }
+        temp.rename(rank(window).getName());
+    }
+}
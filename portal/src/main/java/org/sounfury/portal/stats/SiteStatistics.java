@@ -0,0 +1,106 @@
+package org.sounfury.portal.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.blog.jooq.tables.pojos.SiteInfo;
+import org.sounfury.core.constant.CacheNames;
+import org.sounfury.portal.cache.CategoryTreeSnapshot;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.dto.rep.InfoCountRep;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.SiteInfoPortalRepository;
+import org.sounfury.utils.CacheUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+import static org.sounfury.core.constant.RedisKeyConstant.SITE_INFO;
+
+/**
+ * 站点统计
+ * 已发布文章数和总字数保存在 site_info 中，由文章写操作在同一事务内按增量更新，读取走站点信息缓存；
+ * 标签数、分类数取自标签统计和分类树快照。定时或手动对账时从文章表整体重新统计
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SiteStatistics {
+    private final SiteInfoPortalRepository siteInfoRepository;
+    private final TagStatistics tagStatistics;
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
+    private final ContentVersions contentVersions;
+
+    /**
+     * 站点信息，缓存未命中时从数据库加载
+     */
+    public SiteInfo siteInfo() {
+        SiteInfo cached = CacheUtils.get(CacheNames.SITE_INFO, SITE_INFO);
+        if (cached == null) {
+            cached = siteInfoRepository.fetchOneById((byte) 1);
+            CacheUtils.put(CacheNames.SITE_INFO, SITE_INFO, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * 已发布文章数、标签数、启用分类数
+     */
+    public InfoCountRep counts() {
+        Long articleCount = siteInfo().getArticleCount();
+        return new InfoCountRep(articleCount == null ? 0 : articleCount.intValue(),
+                tagStatistics.tags()
+                        .size(),
+                categoryTreeSnapshot.dict()
+                        .size());
+    }
+
+    /**
+     * 文章新增、更新、删除，在提交前随文章写入的事务一起更新，失败时整体回滚
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        long countDelta = (isPublished(event.after()) ? 1 : 0) - (isPublished(event.before()) ? 1 : 0);
+        applyDelta(countDelta, wordCount(event.after()) - wordCount(event.before()));
+    }
+
+    /**
+     * 从文章表重新统计已发布文章数和总字数，修正增量带来的偏差
+     */
+    @Scheduled(fixedDelayString = "${blog.site-stats.reconcile-interval:86400000}",
+            initialDelayString = "${blog.site-stats.reconcile-interval:86400000}")
+    public void reconcile() {
+        siteInfoRepository.reconcileArticleStats();
+        CacheUtils.evict(CacheNames.SITE_INFO, SITE_INFO);
+        contentVersions.bump(ContentVersions.SITE);
+        log.info("站点统计对账完成");
+    }
+
+    /**
+     * 与文章写入在同一事务内更新，站点信息缓存在提交后失效
+     */
+    private void applyDelta(long countDelta, long wordsDelta) {
+        if (countDelta == 0 && wordsDelta == 0) {
+            return;
+        }
+        siteInfoRepository.addArticleStats(countDelta, wordsDelta);
+        CacheUtils.evict(CacheNames.SITE_INFO, SITE_INFO);
+        contentVersions.bump(ContentVersions.SITE);
+    }
+
+    private static long wordCount(Article article) {
+        return article == null || article.getContent() == null ? 0 : article.getContent()
+                .length();
+    }
+
+    private static boolean isPublished(Article article) {
+        return article != null
+                && Objects.equals(article.getEnableStatus(), STATUS_ENABLE)
+                && (article.getDelFlag() == null || Objects.equals(article.getDelFlag(), NOT_DEL_FLAG));
+    }
+}
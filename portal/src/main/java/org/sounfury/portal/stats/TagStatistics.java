@@ -0,0 +1,230 @@
+package org.sounfury.portal.stats;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sounfury.blog.jooq.tables.pojos.Article;
+import org.sounfury.portal.cache.ContentVersions;
+import org.sounfury.portal.dto.rep.TagsQueryRep;
+import org.sounfury.portal.event.ArticleChangedEvent;
+import org.sounfury.portal.repository.TagPortalRepository;
+import org.sounfury.utils.RedisUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import static org.sounfury.core.constant.Constants.NOT_DEL_FLAG;
+import static org.sounfury.core.constant.Constants.STATUS_ENABLE;
+import static org.sounfury.core.constant.RedisKeyConstant.TAG_STATS_SEQUENCE;
+import static org.sounfury.core.constant.RedisKeyConstant.TAG_STATS_TOPIC;
+
+/**
+ * 标签云统计
+ * 内存中维护每个标签下已发布文章的数量，标签云直接返回预先生成的列表；首次使用时从数据库加载一次，
+ * 之后由文章标签同步和文章发布、下线、删除按增量更新（通过 Redis topic 同步到所有节点），并定时与数据库对账
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagStatistics {
+    private static final char DELTA_SEPARATOR = ':';
+    private static final String ENTRY_SEPARATOR = ",";
+    private static final char SEQUENCE_SEPARATOR = '@';
+    /**
+     * 整体重新统计的通知，出现新标签时发送
+     */
+    private static final String RELOAD_MESSAGE = "reload";
+
+    private final TagPortalRepository tagRepository;
+    private final ContentVersions contentVersions;
+
+    /**
+     * 标签id -> 标签名，按id排序
+     */
+    private final ConcurrentSkipListMap<Long, String> tagNames = new ConcurrentSkipListMap<>();
+
+    /**
+     * 标签id -> 已发布文章数
+     */
+    private final Map<Long, Long> tagCounts = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * 当前快照查询前读到的增量序号，序号不大于它的增量在快照查询之前就已提交，快照中已包含
+     */
+    private long snapshotSequence;
+
+    /**
+     * 标签云列表，计数变化后置空，下次读取时重新生成
+     */
+    private volatile List<TagsQueryRep> view;
+
+    @PostConstruct
+    public void subscribe() {
+        RedisUtils.subscribe(TAG_STATS_TOPIC, String.class, this::applyDeltas);
+    }
+
+    /**
+     * 定时从数据库重新统计，修正增量丢失等带来的偏差
+     */
+    @Scheduled(fixedDelayString = "${blog.tag.reconcile-interval:3600000}",
+            initialDelayString = "${blog.tag.reconcile-interval:3600000}")
+    public synchronized void reload() {
+        long sequence = currentSequence();
+        List<TagsQueryRep> tags = tagRepository.countPublishedArticlesByTag();
+        tagNames.clear();
+        tagCounts.clear();
+        tags.forEach(tag -> {
+            tagNames.put(tag.getId(), tag.getName());
+            tagCounts.put(tag.getId(), tag.getArticleCount()
+                    .longValue());
+        });
+        snapshotSequence = sequence;
+        view = null;
+        loaded = true;
+        contentVersions.localStateChanged(ContentVersions.TAG);
+    }
+
+    /**
+     * 所有标签及其已发布文章数，按标签id排序，不可修改
+     */
+    public List<TagsQueryRep> tags() {
+        List<TagsQueryRep> current = view;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                reload();
+            }
+            if (view == null) {
+                view = tagNames.entrySet()
+                        .stream()
+                        .map(entry -> new TagsQueryRep(entry.getKey(), entry.getValue(),
+                                (int) Math.max(0L, tagCounts.getOrDefault(entry.getKey(), 0L))))
+                        .toList();
+            }
+            return view;
+        }
+    }
+
+    /**
+     * 文章新增、更新、删除，事务提交后通知所有节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        publishDeltas(event.before(), event.after(), event.beforeTags(), event.afterTags());
+    }
+
+    private void publishDeltas(Article before, Article after, Collection<Long> beforeTags,
+                               Collection<Long> afterTags) {
+        //新建的标签即使只关联了草稿也要出现在标签云和后台标签列表中，内存中没有名称，通知所有节点整体重新统计
+        if (afterTags.stream()
+                .anyMatch(tagId -> !tagNames.containsKey(tagId))) {
+            publish(RELOAD_MESSAGE);
+            return;
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        if (isPublished(before)) {
+            beforeTags.forEach(tagId -> deltas.merge(tagId, -1L, Long::sum));
+        }
+        if (isPublished(after)) {
+            afterTags.forEach(tagId -> deltas.merge(tagId, 1L, Long::sum));
+        }
+        deltas.values()
+                .removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String message = deltas.entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + String.valueOf(DELTA_SEPARATOR) + entry.getValue())
+                .collect(Collectors.joining(ENTRY_SEPARATOR));
+        publish(nextSequencePrefix() + message);
+    }
+
+    /**
+     * 提交后取得的增量序号，取不到时不带序号，收到的节点总是应用
+     */
+    private static String nextSequencePrefix() {
+        try {
+            return String.valueOf(RedisUtils.incrAtomicValue(TAG_STATS_SEQUENCE)) + SEQUENCE_SEPARATOR;
+        } catch (Exception e) {
+            log.warn("标签统计增量序号递增失败", e);
+            return "";
+        }
+    }
+
+    /**
+     * 读取失败时沿用上一个快照的序号
+     */
+    private long currentSequence() {
+        try {
+            return RedisUtils.getAtomicValue(TAG_STATS_SEQUENCE);
+        } catch (Exception e) {
+            log.warn("标签统计增量序号读取失败", e);
+            return snapshotSequence;
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            RedisUtils.publish(TAG_STATS_TOPIC, message);
+        } catch (Exception e) {
+            //通知失败只影响统计的实时性，定时对账会修正
+            log.warn("标签统计增量通知失败：{}", message, e);
+            applyDeltas(message);
+        }
+    }
+
+    /**
+     * 应用增量，消息格式为 序号@tagId:delta,tagId:delta，或整体重新统计的通知
+     * 序号不大于快照序号的增量已包含在快照中，直接丢弃；提交后、取得序号前恰好开始的快照查询仍可能与增量重复计入，由定时对账修正
+     */
+    private synchronized void applyDeltas(String message) {
+        if (!loaded) {
+            //尚未加载时等首次使用再从数据库统计
+            return;
+        }
+        if (RELOAD_MESSAGE.equals(message)) {
+            loaded = false;
+            view = null;
+            contentVersions.localStateChanged(ContentVersions.TAG);
+            return;
+        }
+        int sequenceIndex = message.indexOf(SEQUENCE_SEPARATOR);
+        if (sequenceIndex >= 0 && Long.parseLong(message.substring(0, sequenceIndex)) <= snapshotSequence) {
+            return;
+        }
+        for (String entry : message.substring(sequenceIndex + 1)
+                .split(ENTRY_SEPARATOR)) {
+            int index = entry.lastIndexOf(DELTA_SEPARATOR);
+            Long tagId = Long.parseLong(entry.substring(0, index));
+            long delta = Long.parseLong(entry.substring(index + 1));
+            if (!tagNames.containsKey(tagId)) {
+                //新建的标签还没有名称，下次读取时整体重新统计
+                loaded = false;
+                break;
+            }
+            tagCounts.merge(tagId, delta, Long::sum);
+        }
+        view = null;
+        contentVersions.localStateChanged(ContentVersions.TAG);
+    }
+
+    private static boolean isPublished(Article article) {
+        return article != null
+                && Objects.equals(article.getEnableStatus(), STATUS_ENABLE)
+                && (article.getDelFlag() == null || Objects.equals(article.getDelFlag(), NOT_DEL_FLAG));
+    }
+}
@@ -140,6 +140,8 @@ create index idx_last_active_time
 
 create table spring_ai_chat_memory
 (
+    id              bigint auto_increment comment '主键ID'
+        primary key,
     conversation_id varchar(36)                                  not null,
     content         text                                         not null,
     type            enum ('USER', 'ASSISTANT', 'SYSTEM', 'TOOL') not null,